@@ -0,0 +1,58 @@
+package com.techacademy.benchmark;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.techacademy.entity.Reports;
+import com.techacademy.service.ReportsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// 日報の登録・更新で一意制約違反となった際の、日付重複かどうかの判定
+// (以前の重複チェック（登録済み日報を全件取得して絞り込む処理）は一意制約による判定に置き換えている)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DuplicateReportDateBenchmark {
+
+    private ReportsService reportsService;
+    private DataIntegrityViolationException duplicateReportDate;
+    private DataIntegrityViolationException otherViolation;
+
+    @Setup
+    public void setUp() {
+        // 判定処理はリポジトリを使用しない
+        reportsService = Services.create(ReportsService.class, new SimpleMeterRegistry());
+        duplicateReportDate = new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry '2-2024-04-01' for key 'reports." + Reports.UK_ACTIVE_REPORT_DATE + "'"));
+        otherViolation = new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(
+                        "Cannot add or update a child row: a foreign key constraint fails"));
+    }
+
+    @Benchmark
+    public boolean duplicateReportDate() {
+        return reportsService.isDuplicateReportDate(duplicateReportDate);
+    }
+
+    @Benchmark
+    public boolean otherViolation() {
+        return reportsService.isDuplicateReportDate(otherViolation);
+    }
+}
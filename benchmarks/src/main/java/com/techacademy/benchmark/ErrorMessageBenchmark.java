@@ -0,0 +1,43 @@
+package com.techacademy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
+
+// コントローラが登録・更新のたびに行うエラーメッセージの判定・取得
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorMessageBenchmark {
+
+    // 正常終了時（エラーメッセージマップに無いことの確認のみ）
+    @Benchmark
+    public boolean success() {
+        return ErrorMessage.contains(ErrorKinds.SUCCESS);
+    }
+
+    // エラー時（判定とメッセージの名称・内容の取得）
+    @Benchmark
+    public void error(Blackhole blackhole) {
+        ErrorKinds result = ErrorKinds.DATECHECK_ERROR;
+        if (ErrorMessage.contains(result)) {
+            blackhole.consume(ErrorMessage.getErrorName(result));
+            blackhole.consume(ErrorMessage.getErrorValue(result));
+        }
+    }
+}
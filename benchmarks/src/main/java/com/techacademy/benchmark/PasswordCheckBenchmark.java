@@ -0,0 +1,84 @@
+package com.techacademy.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.service.EmployeeService;
+
+// 従業員登録・更新時のパスワードチェック（半角英数字・桁数チェックとBCryptによるハッシュ化）
+// (EmployeeServiceの登録・更新を、DBを使わないリポジトリで呼び出す)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordCheckBenchmark {
+
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        // 社員番号は未登録、保存・更新は成功したものとして応答する
+        EmployeeRepository employeeRepository = Services.stub(EmployeeRepository.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "findById":
+                return Optional.empty();
+            case "save":
+                return args[0];
+            case "updateIfVersionMatches":
+                return 1;
+            default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        employeeService = Services.create(EmployeeService.class, employeeRepository, new BCryptPasswordEncoder());
+    }
+
+    // 登録でチェックを通過してハッシュ化まで行う場合
+    @Benchmark
+    public ErrorKinds saveValidPassword() {
+        return employeeService.save(employee("password1234"));
+    }
+
+    // 更新でチェックを通過してハッシュ化まで行う場合
+    @Benchmark
+    public ErrorKinds updateValidPassword() {
+        return employeeService.update(employee("password1234"));
+    }
+
+    // 半角英数字チェックでエラーとなる場合（ハッシュ化は行わない）
+    @Benchmark
+    public ErrorKinds halfSizeError() {
+        return employeeService.save(employee("パスワード1234"));
+    }
+
+    // 桁数チェックでエラーとなる場合（ハッシュ化は行わない）
+    @Benchmark
+    public ErrorKinds rangeError() {
+        return employeeService.save(employee("pass"));
+    }
+
+    private static Employee employee(String password) {
+        Employee employee = new Employee();
+        employee.setCode("1");
+        employee.setVersion(0);
+        employee.setPassword(password);
+        return employee;
+    }
+}
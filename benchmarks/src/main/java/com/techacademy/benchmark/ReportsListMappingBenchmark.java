@@ -0,0 +1,50 @@
+package com.techacademy.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.techacademy.dto.ReportsListRow;
+
+// 日報一覧のクエリ結果から一覧の行（プロジェクション）への変換と、画面で参照する項目の読み出し
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportsListMappingBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int rows;
+
+    private List<Map<String, Object>> tuples;
+
+    @Setup
+    public void setUp() {
+        tuples = ReportsListRows.tuples(rows);
+    }
+
+    @Benchmark
+    public void mapping(Blackhole blackhole) {
+        for (ReportsListRow row : ReportsListRows.project(tuples)) {
+            blackhole.consume(row.getId());
+            blackhole.consume(row.getReportDate());
+            blackhole.consume(row.getTitle());
+            blackhole.consume(row.getEmployeeName());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.techacademy.benchmark;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import com.techacademy.dto.ReportsListRow;
+import com.techacademy.dto.ReportsPage;
+
+// 日報一覧画面（reports/list.html）の描画
+// (Spring Securityのsec:属性は処理せずにそのまま出力する。権限による表示の切り替えは計測対象外)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportsListRenderBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int rows;
+
+    private SpringTemplateEngine templateEngine;
+    private WebContext context;
+
+    @Setup
+    public void setUp() {
+        // アプリケーションと同じ設定（src/main/resources/templates、キャッシュ有効）
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        // @{}のリンクはリクエストを基に作成するため、モックのリクエストを使用する
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/reports");
+        context = new WebContext(JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(request, new MockHttpServletResponse()));
+
+        List<ReportsListRow> reportsList = ReportsListRows.project(ReportsListRows.tuples(rows));
+        ReportsPage page = new ReportsPage(reportsList, true, true);
+        context.setVariable("page", page);
+        context.setVariable("reportsList", page.getContent());
+        context.setVariable("listSize", (long) rows);
+    }
+
+    @Benchmark
+    public void render() {
+        templateEngine.process("reports/list", context, Writer.nullWriter());
+    }
+}
@@ -0,0 +1,46 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import com.techacademy.dto.ReportsListRow;
+
+// ベンチマーク用の日報一覧の行データ
+final class ReportsListRows {
+
+    // Spring Data JPAがクエリ結果からプロジェクションを作成する際と同じファクトリ
+    static final ProjectionFactory PROJECTION_FACTORY = new SpelAwareProxyProjectionFactory();
+
+    private ReportsListRows() {
+    }
+
+    // クエリ結果の1行（列の別名と値）をrows件作成する
+    static List<Map<String, Object>> tuples(int rows) {
+        List<Map<String, Object>> tuples = new ArrayList<>(rows);
+        LocalDate date = LocalDate.of(2024, 4, 1);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> tuple = new HashMap<>();
+            tuple.put("id", i + 1);
+            tuple.put("reportDate", date.minusDays(i % 3650));
+            tuple.put("title", "日報タイトル" + i);
+            tuple.put("employeeName", "従業員" + (i % 100));
+            tuples.add(tuple);
+        }
+        return tuples;
+    }
+
+    // クエリ結果をプロジェクションに変換する
+    static List<ReportsListRow> project(List<Map<String, Object>> tuples) {
+        List<ReportsListRow> rows = new ArrayList<>(tuples.size());
+        for (Map<String, Object> tuple : tuples) {
+            rows.add(PROJECTION_FACTORY.createProjection(ReportsListRow.class, tuple));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,38 @@
+package com.techacademy.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+// ベンチマーク用のサービスの作成
+// (コンストラクタの引数を型で割り当て、渡さなかった依存はnullとする。引数が増えてもベンチマークを修正しなくてよい)
+final class Services {
+
+    private Services() {
+    }
+
+    // 計測する処理で使う依存のみを渡してサービスを作成する
+    static <T> T create(Class<T> type, Object... dependencies) {
+        Constructor<?> constructor = type.getConstructors()[0];
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            for (Object dependency : dependencies) {
+                if (parameterTypes[i].isInstance(dependency)) {
+                    args[i] = dependency;
+                }
+            }
+        }
+        try {
+            return type.cast(constructor.newInstance(args));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    // リポジトリ等のインターフェースの代わり（handlerで応答し、DBは使わない）
+    static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
@@ -0,0 +1,39 @@
+package com.techacademy.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// 画面（操作）ごとの応答時間とエラー件数
+final class EndpointStats {
+
+    // 応答時間はマイクロ秒で記録する（上限1分、有効桁数3桁）
+    private final Histogram histogram = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long elapsedNanos, boolean success) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), histogram.getHighestTrackableValue()));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    // 指定したパーセンタイルの応答時間（ミリ秒）
+    double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return histogram.getMaxValue() / 1000.0;
+    }
+}
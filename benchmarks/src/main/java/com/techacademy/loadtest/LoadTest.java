@@ -0,0 +1,124 @@
+package com.techacademy.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 負荷試験（起動中のアプリケーションに対して、複数の利用者がログインして日報の一覧・詳細・更新・登録を繰り返す）
+ *
+ * 設定はシステムプロパティで指定する（scripts/load-test.sh から実行する）
+ *   baseUrl        接続先（既定 http://localhost:8080）
+ *   password       ログインするパスワード（必須。生成した従業員は全員同じパスワード）
+ *   users          同時に操作する利用者数（既定 50。社員番号 L000001 から順にログインする）
+ *   duration       計測時間（ISO-8601形式。既定 PT5M）
+ *   warmup         計測前に操作する時間（既定 PT30S）
+ *   csv            結果をCSVで出力するファイル（任意）
+ *
+ * 各利用者は応答を受け取ってから次の要求を送る（待ち時間なし）。結果は画面ごとの件数・エラー件数・スループット・応答時間のパーセンタイル
+ */
+public class LoadTest {
+
+    private final String baseUrl;
+    private final String password;
+
+    private volatile Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean finished;
+
+    LoadTest(String baseUrl, String password) {
+        this.baseUrl = baseUrl;
+        this.password = password;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String password = System.getProperty("password");
+        if (password == null) {
+            System.err.println("-Dpassword=<ログインするパスワード> を指定してください");
+            System.exit(2);
+        }
+        int users = Integer.getInteger("users", 50);
+        Duration duration = Duration.parse(System.getProperty("duration", "PT5M"));
+        Duration warmup = Duration.parse(System.getProperty("warmup", "PT30S"));
+
+        LoadTest loadTest = new LoadTest(System.getProperty("baseUrl", "http://localhost:8080"), password);
+        loadTest.run(users, warmup, duration);
+        loadTest.print(System.out, duration);
+
+        String csv = System.getProperty("csv");
+        if (csv != null) {
+            loadTest.writeCsv(Path.of(csv), duration);
+        }
+    }
+
+    private void run(int users, Duration warmup, Duration duration) throws InterruptedException {
+        // 登録する日付は実行ごとに変える（前回の実行で登録した日報と重複しないようにする）
+        LocalDate firstReportDate = LocalDate.of(1999, 12, 31).minusYears(ThreadLocalRandom.current().nextInt(50));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            String employeeCode = String.format("L%06d", i);
+            Thread thread = new Thread(new VirtualUser(this, employeeCode, firstReportDate), "load-" + employeeCode);
+            thread.start();
+            threads.add(thread);
+        }
+
+        // ウォームアップ中の結果は捨てる
+        Thread.sleep(warmup.toMillis());
+        stats = new ConcurrentHashMap<>();
+        Thread.sleep(duration.toMillis());
+        finished = true;
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    String password() {
+        return password;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    void record(String endpoint, long elapsedNanos, boolean success) {
+        stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(elapsedNanos, success);
+    }
+
+    private void print(PrintStream out, Duration duration) {
+        out.printf("%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Map.Entry<String, EndpointStats> entry : new ConcurrentSkipListMap<>(stats).entrySet()) {
+            EndpointStats s = entry.getValue();
+            out.printf("%-12s %10d %8d %10.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(), s.count(), s.errors(),
+                    s.count() / (double) duration.toSeconds(), s.percentileMillis(50), s.percentileMillis(90),
+                    s.percentileMillis(99), s.percentileMillis(99.9), s.maxMillis());
+        }
+    }
+
+    private void writeCsv(Path path, Duration duration) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,errors,requests_per_second,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        for (Map.Entry<String, EndpointStats> entry : new ConcurrentSkipListMap<>(stats).entrySet()) {
+            EndpointStats s = entry.getValue();
+            lines.add(String.format("%s,%d,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f", entry.getKey(), s.count(), s.errors(),
+                    s.count() / (double) duration.toSeconds(), s.percentileMillis(50), s.percentileMillis(90),
+                    s.percentileMillis(99), s.percentileMillis(99.9), s.maxMillis()));
+        }
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,161 @@
+package com.techacademy.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// 1人の利用者の操作（フォームログインの後、一覧・詳細・更新・登録を繰り返す）
+final class VirtualUser implements Runnable {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern REPORT_LINK = Pattern.compile("href=\"/reports/(\\d+)\"");
+    private static final Pattern REPORT_DATE = Pattern.compile("name=\"reportDate\" value=\"(\\d{4}-\\d{2}-\\d{2})\"");
+    private static final Pattern VERSION = Pattern.compile("name=\"version\" value=\"(\\d+)\"");
+
+    private final LoadTest loadTest;
+    private final String employeeCode;
+    private final HttpClient client;
+
+    // 登録する日報の日付（生成データ・他の利用者と重複しないよう、利用者ごとに過去へ1日ずつ進める）
+    private LocalDate nextReportDate;
+
+    VirtualUser(LoadTest loadTest, String employeeCode, LocalDate firstReportDate) {
+        this.loadTest = loadTest;
+        this.employeeCode = employeeCode;
+        this.nextReportDate = firstReportDate;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (!login()) {
+                return;
+            }
+            while (!loadTest.isFinished()) {
+                iterate();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean login() throws InterruptedException {
+        String csrf = csrf(get("login-form", "/login"));
+        Response response = post("login", "/login",
+                form("username", employeeCode, "password", loadTest.password(), "_csrf", csrf));
+        return response.redirect() && !response.location().contains("error");
+    }
+
+    private void iterate() throws InterruptedException {
+        // 一覧（一般権限のため自分の日報のみ）
+        Response list = get("list", "/reports");
+        List<String> ids = find(REPORT_LINK, list.body());
+
+        if (!ids.isEmpty()) {
+            String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+
+            // 詳細
+            get("detail", "/reports/" + id);
+
+            // 更新（日付はそのままでタイトル・内容を変更する）
+            Response edit = get("update-form", "/reports/" + id + "/update");
+            List<String> dates = find(REPORT_DATE, edit.body());
+            List<String> versions = find(VERSION, edit.body());
+            if (!dates.isEmpty() && !versions.isEmpty()) {
+                post("update", "/reports/" + id + "/update", form("reportDate", dates.get(0), "version", versions.get(0),
+                        "title", "負荷試験（更新）", "content", "負荷試験で更新した内容", "_csrf", csrf(edit)));
+            }
+        }
+
+        // 登録
+        Response add = get("add-form", "/reports/add");
+        post("add", "/reports/add", form("reportDate", nextReportDate.toString(),
+                "title", "負荷試験（登録）", "content", "負荷試験で登録した内容", "_csrf", csrf(add)));
+        nextReportDate = nextReportDate.minusDays(1);
+    }
+
+    // 画面の取得（200以外をエラーとする）
+    private Response get(String endpoint, String path) throws InterruptedException {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).GET().build(), false);
+    }
+
+    // フォームの送信（リダイレクト以外をエラーとする。入力エラーの場合は画面が再表示され200となる）
+    private Response post(String endpoint, String path, String form) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return send(endpoint, request, true);
+    }
+
+    private Response send(String endpoint, HttpRequest request, boolean expectRedirect) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            Response result = new Response(response.statusCode(), response.body(),
+                    response.headers().firstValue("Location").orElse(""));
+            boolean success = expectRedirect ? result.redirect() : result.status() == 200;
+            loadTest.record(endpoint, elapsed, success);
+            return result;
+        } catch (IOException e) {
+            loadTest.record(endpoint, System.nanoTime() - start, false);
+            return new Response(0, "", "");
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(loadTest.baseUrl() + path);
+    }
+
+    private static String csrf(Response response) {
+        List<String> values = find(CSRF, response.body());
+        return values.isEmpty() ? "" : values.get(0);
+    }
+
+    private static List<String> find(Pattern pattern, String body) {
+        List<String> values = new ArrayList<>();
+        Matcher matcher = pattern.matcher(body);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+
+    private static String form(String... nameValues) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < nameValues.length; i += 2) {
+            params.put(nameValues[i], nameValues[i + 1]);
+        }
+        return params.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private record Response(int status, String body, String location) {
+        boolean redirect() {
+            return status == 302;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# サービス層・画面描画のマイクロベンチマーク（benchmarksモジュール、JMH）を実行し、結果をJSONで保存する
+#
+# 前提: Java 17以上（DBは不要）
+# 使い方: scripts/bench-jmh.sh [JMHのオプション]
+#   例) scripts/bench-jmh.sh ReportsListRender -p rows=100,10000
+# 結果: benchmarks/target/jmh/<コミット>-<日時>.json（リリース間の比較用。JMH Visualizer等で読み込める）
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+# アプリケーション（通常のjar）をローカルリポジトリに登録してから、それに依存するベンチマークをビルドする
+./mvnw -q -DskipTests install
+./mvnw -q -f benchmarks/pom.xml package
+
+mkdir -p benchmarks/target/jmh
+RESULT="benchmarks/target/jmh/$(git rev-parse --short HEAD)-$(date +%Y%m%d%H%M%S).json"
+
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "$RESULT" "$@"
+echo "結果: $RESULT"
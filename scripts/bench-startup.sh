@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+# JVM（jar）とネイティブイメージで、起動時間と起動直後・日報一覧の表示後のメモリ使用量（RSS）を比較する
+#
+# 前提: GraalVM（JDK 17以上、native-image）、curl、接続先のMySQL（application.propertiesの設定）
+# 使い方: LOGIN_USER=1 LOGIN_PASSWORD=xxxxxxxx scripts/bench-startup.sh
+#   RUNS  それぞれの起動回数（既定 5。中央値を表示する）
+#   SKIP_BUILD=1 でビルドを省略
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-18080}
+RUNS=${RUNS:-5}
+: "${LOGIN_USER:?LOGIN_USER（社員番号）を指定してください}"
+: "${LOGIN_PASSWORD:?LOGIN_PASSWORD を指定してください}"
+
+if [ "${SKIP_BUILD:-0}" != 1 ]; then
+    ./mvnw -q -DskipTests package
+    ./mvnw -q -Pnative -DskipTests native:compile
+fi
+JAR=$(ls target/*-exec.jar | head -n 1)
+NATIVE=target/DailyReportSystemApplication
+
+# 1回起動して「起動時間（ミリ秒） 起動直後のRSS（KB） 一覧表示後のRSS（KB）」を出力する
+measure() {
+    local log
+    log=$(mktemp)
+    local start
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" >"$log" 2>&1 &
+    local pid=$!
+
+    for _ in $(seq 1 1200); do
+        if curl -fs -o /dev/null "http://localhost:$PORT/login"; then
+            break
+        fi
+        sleep 0.05
+    done
+    local elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    local rss_started
+    rss_started=$(ps -o rss= -p $pid | tr -d ' ')
+
+    # フォームログインしてセッションを取得
+    local jar
+    jar=$(mktemp)
+    local csrf
+    csrf=$(curl -fs -c "$jar" "http://localhost:$PORT/login" | sed -n 's/.*name="_csrf" value="\([^"]*\)".*/\1/p')
+    curl -fs -o /dev/null -b "$jar" -c "$jar" \
+        --data-urlencode "username=$LOGIN_USER" --data-urlencode "password=$LOGIN_PASSWORD" \
+        --data-urlencode "_csrf=$csrf" "http://localhost:$PORT/login"
+
+    # 日報一覧を数回表示した後のRSS（認証・画面描画・Hibernateの初期化後）
+    # (ログインに失敗するとログイン画面へリダイレクトされるため、200以外は中止する)
+    for _ in $(seq 1 20); do
+        local code
+        code=$(curl -s -o /dev/null -w '%{http_code}' -b "$jar" "http://localhost:$PORT/reports")
+        if [ "$code" != 200 ]; then
+            echo "日報一覧を表示できませんでした（HTTP $code）。LOGIN_USER・LOGIN_PASSWORD を確認してください" >&2
+            kill $pid
+            exit 1
+        fi
+    done
+    local rss_served
+    rss_served=$(ps -o rss= -p $pid | tr -d ' ')
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    rm -f "$jar" "$log"
+    echo "$elapsed $rss_started $rss_served"
+}
+
+# 複数回の計測結果から各列の中央値を出力する
+median() {
+    sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }'
+}
+
+report() {
+    local name=$1
+    shift
+    local results=()
+    local result
+    for _ in $(seq 1 "$RUNS"); do
+        # measureが中止した場合はset -eでここで終了する
+        result=$(measure "$@")
+        results+=("$result")
+    done
+    local startup rss_started rss_served
+    startup=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+    rss_started=$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)
+    rss_served=$(printf '%s\n' "${results[@]}" | awk '{ print $3 }' | median)
+    printf '%-8s %12s %16s %16s\n' "$name" "$startup" "$((rss_started / 1024))" "$((rss_served / 1024))"
+}
+
+printf '%-8s %12s %16s %16s\n' "build" "startup(ms)" "RSS started(MB)" "RSS served(MB)"
+report jvm java -jar "$JAR"
+report native "$NATIVE"
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# 仮想スレッドモードと従来のスレッドプールで、日報一覧のスループットと99パーセンタイルの応答時間を比較する
+#
+# 前提: Java 21以上、wrk、curl、接続先のMySQL（application.propertiesの設定）
+# 使い方: LOGIN_USER=1 LOGIN_PASSWORD=xxxxxxxx scripts/bench-virtual-threads.sh
+#   CONNECTIONS  同時接続数（既定 400）
+#   DURATION     1回の計測時間（既定 30s）
+#   TARGET_PATH  計測するURL（既定 /reports）
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-18080}
+CONNECTIONS=${CONNECTIONS:-400}
+DURATION=${DURATION:-30s}
+TARGET_PATH=${TARGET_PATH:-/reports}
+: "${LOGIN_USER:?LOGIN_USER（社員番号）を指定してください}"
+: "${LOGIN_PASSWORD:?LOGIN_PASSWORD を指定してください}"
+
+JAR=$(ls target/*-exec.jar 2>/dev/null | head -n 1 || true)
+if [ -z "$JAR" ]; then
+    ./mvnw -q -DskipTests package
+    JAR=$(ls target/*-exec.jar | head -n 1)
+fi
+
+run() {
+    local virtual=$1
+    local log
+    log=$(mktemp)
+
+    java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" >"$log" 2>&1 &
+    local pid=$!
+
+    # 起動待ち
+    for _ in $(seq 1 120); do
+        if curl -fs -o /dev/null "http://localhost:$PORT/login"; then
+            break
+        fi
+        sleep 1
+    done
+
+    # フォームログインしてセッションを取得
+    local jar
+    jar=$(mktemp)
+    local csrf
+    csrf=$(curl -fs -c "$jar" "http://localhost:$PORT/login" | sed -n 's/.*name="_csrf" value="\([^"]*\)".*/\1/p')
+    curl -fs -o /dev/null -b "$jar" -c "$jar" \
+        --data-urlencode "username=$LOGIN_USER" --data-urlencode "password=$LOGIN_PASSWORD" \
+        --data-urlencode "_csrf=$csrf" "http://localhost:$PORT/login"
+    local session
+    session=$(awk '$6 == "JSESSIONID" { print $7 }' "$jar")
+
+    # ウォームアップの後に計測
+    wrk -t4 -c"$CONNECTIONS" -d10s -H "Cookie: JSESSIONID=$session" "http://localhost:$PORT$TARGET_PATH" >/dev/null
+    local result
+    result=$(wrk -t4 -c"$CONNECTIONS" -d"$DURATION" --latency -H "Cookie: JSESSIONID=$session" \
+        "http://localhost:$PORT$TARGET_PATH")
+
+    local rps p99
+    rps=$(echo "$result" | awk '/Requests\/sec/ { print $2 }')
+    p99=$(echo "$result" | awk '$1 == "99%" { print $2 }')
+    printf '%-10s %12s %10s\n' "$([ "$virtual" = true ] && echo virtual || echo platform)" "$rps" "$p99"
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    rm -f "$jar" "$log"
+}
+
+printf '%-10s %12s %10s\n' "threads" "requests/s" "p99"
+run false
+run true
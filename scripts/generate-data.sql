@@ -0,0 +1,78 @@
+-- 負荷試験用の大量データを生成する（MySQL 8.0以上。scripts/load-test.sh から実行する）
+--
+-- 事前に次の変数を設定する
+--   @employees      生成する従業員数（社員番号 L000001～、権限は一般）
+--   @days           日報を生成する期間（今日から遡る日数。日報のIDの採番上、1999日まで）
+--   @fill_rate      出勤日に日報を書く割合（0～1）
+--   @password_hash  生成する従業員のパスワード（BCryptでハッシュ化した値）
+--
+-- 日報の分布
+--   土日は書かない。従業員ごとに入社日（期間の30%～100%前）が異なり、入社日以降の出勤日に @fill_rate の割合で書く
+--   @employees=10000, @days=1130, @fill_rate=0.95 で約500万件（従業員1人あたり約500件）
+
+SET SESSION cte_max_recursion_depth = 1000000;
+
+-- 従業員
+INSERT INTO employees(code, name, role, password, delete_flg, created_at, updated_at)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < @employees)
+SELECT CONCAT('L', LPAD(n, 6, '0')), CONCAT('負荷試験　', n), 'GENERAL', @password_hash, 0, NOW(), NOW()
+  FROM seq;
+
+-- 日報を書く日（出勤日）の一覧
+DROP TEMPORARY TABLE IF EXISTS generate_days;
+CREATE TEMPORARY TABLE generate_days (n INT PRIMARY KEY, d DATE NOT NULL);
+INSERT INTO generate_days(n, d)
+WITH RECURSIVE seq(n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < @days - 1)
+SELECT n, CURDATE() - INTERVAL n DAY
+  FROM seq
+ WHERE DAYOFWEEK(CURDATE() - INTERVAL n DAY) NOT IN (1, 7);
+
+-- 日報（100人分ずつ登録してコミットする）
+-- IDは 1000000 + 従業員の連番 * 2000 + 日数 とし、画面から登録した日報（採番テーブル）と重複しないよう後で採番テーブルを進める
+DROP PROCEDURE IF EXISTS generate_reports;
+DELIMITER //
+CREATE PROCEDURE generate_reports()
+BEGIN
+    DECLARE first_no INT DEFAULT 1;
+    -- 2000日以上ではIDが次の従業員の範囲と重複するため、登録せずに中止する
+    IF @days >= 2000 THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = '@days must be less than 2000';
+    END IF;
+    WHILE first_no <= @employees DO
+        INSERT INTO reports(id, report_date, title, content, employee_code, delete_flg, created_at, updated_at)
+        WITH RECURSIVE emp(n) AS (
+            SELECT first_no UNION ALL SELECT n + 1 FROM emp WHERE n < LEAST(first_no + 99, @employees)
+        )
+        SELECT 1000000 + emp.n * 2000 + days.n,
+               days.d,
+               CONCAT(DATE_FORMAT(days.d, '%Y年%c月%e日'), 'の日報'),
+               CONCAT('本日の作業内容。', REPEAT('打合せと資料作成を行いました。', 1 + (emp.n + days.n) % 10)),
+               CONCAT('L', LPAD(emp.n, 6, '0')),
+               0,
+               days.d + INTERVAL 18 HOUR,
+               days.d + INTERVAL 18 HOUR
+          FROM emp
+          JOIN generate_days days ON days.n < @days * (0.3 + 0.7 * RAND(emp.n))
+         WHERE RAND() < @fill_rate;
+        COMMIT;
+        SET first_no = first_no + 100;
+    END WHILE;
+END//
+DELIMITER ;
+
+CALL generate_reports();
+DROP PROCEDURE generate_reports;
+DROP TEMPORARY TABLE generate_days;
+
+-- 採番テーブルを生成したIDより先に進める（Hibernateは next_val から割当て数分を遡ったIDを使用する）
+UPDATE reports_seq SET next_val = (SELECT MAX(id) + 100 FROM reports);
+
+-- 日報の提出状況の集計を作り直す（マイグレーションの集計後に直接INSERTした日報を反映する）
+DELETE FROM report_monthly_stats;
+INSERT INTO report_monthly_stats (employee_code, report_month, day_bits)
+SELECT employee_code, DATE_FORMAT(report_date, '%Y-%m-01'), BIT_OR(1 << (DAY(report_date) - 1))
+FROM reports
+WHERE delete_flg = 0
+GROUP BY employee_code, DATE_FORMAT(report_date, '%Y-%m-01');
+
+ANALYZE TABLE employees, reports, report_monthly_stats;
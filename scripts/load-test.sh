@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# 大量データ（既定: 従業員1万人・日報約500万件）を生成し、ログインから日報の一覧・詳細・更新・登録を繰り返す負荷試験を行う
+# 画面ごとのスループットと応答時間のパーセンタイルを出力する（このマシンだけで完結し、外部への通信は行わない）
+#
+# 前提: Java 17以上、mysqlクライアント、接続先のMySQL 8.0以上（application.propertiesの設定）
+# 使い方: LOGIN_PASSWORD=xxxxxxxx scripts/load-test.sh
+#   LOGIN_PASSWORD  生成する従業員のパスワード（社員番号2の従業員と同じパスワードとして生成する）
+#   EMPLOYEES       生成する従業員数（既定 10000）
+#   DAYS            日報を生成する期間（日数。1～1999、既定 1130）
+#   FILL_RATE       出勤日に日報を書く割合（既定 0.95）
+#   USERS           同時に操作する利用者数（既定 50）
+#   DURATION        計測時間（既定 PT5M）
+#   SKIP_GENERATE   1の場合はデータを生成しない（生成済みの場合は自動的に省略する）
+#   MYSQL_HOST 等   接続先（既定は application.properties と同じ）
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${PORT:-18080}
+EMPLOYEES=${EMPLOYEES:-10000}
+DAYS=${DAYS:-1130}
+FILL_RATE=${FILL_RATE:-0.95}
+USERS=${USERS:-50}
+DURATION=${DURATION:-PT5M}
+MYSQL_HOST=${MYSQL_HOST:-db_container}
+MYSQL_USER=${MYSQL_USER:-repuser}
+MYSQL_PASSWORD=${MYSQL_PASSWORD:-reppass}
+MYSQL_DATABASE=${MYSQL_DATABASE:-daily_report_system}
+: "${LOGIN_PASSWORD:?LOGIN_PASSWORD を指定してください}"
+
+# 生成する日報のIDは 1000000 + 従業員の連番 * 2000 + 日数 のため、2000日以上では従業員間でIDが重複する
+if [ "$DAYS" -lt 1 ] || [ "$DAYS" -ge 2000 ]; then
+    echo "DAYS は 1～1999 の範囲で指定してください" >&2
+    exit 2
+fi
+if [ "$USERS" -gt "$EMPLOYEES" ]; then
+    echo "USERS は EMPLOYEES 以下にしてください" >&2
+    exit 2
+fi
+
+# アプリケーションと負荷試験（benchmarksモジュール）をビルドする
+./mvnw -q -DskipTests install
+./mvnw -q -f benchmarks/pom.xml package
+JAR=$(ls target/*-exec.jar | head -n 1)
+
+log=$(mktemp)
+java -jar "$JAR" --server.port="$PORT" >"$log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null; wait $pid 2>/dev/null; rm -f "$log"' EXIT
+
+# 起動待ち
+for _ in $(seq 1 180); do
+    if curl -fs -o /dev/null "http://localhost:$PORT/actuator/health"; then
+        break
+    fi
+    sleep 1
+done
+
+# 生成済み（テーブルはマイグレーションで管理しており再起動では消えない）の場合は省略する
+generated=$(mysql -h "$MYSQL_HOST" -u "$MYSQL_USER" -p"$MYSQL_PASSWORD" "$MYSQL_DATABASE" -N \
+    -e "SELECT COUNT(*) FROM employees WHERE code = 'L000001'")
+if [ "${SKIP_GENERATE:-0}" != 1 ] && [ "$generated" = 0 ]; then
+    echo "データ生成中（従業員 $EMPLOYEES 人、期間 $DAYS 日）..."
+    mysql -h "$MYSQL_HOST" -u "$MYSQL_USER" -p"$MYSQL_PASSWORD" "$MYSQL_DATABASE" <<SQL
+SET @employees = $EMPLOYEES;
+SET @days = $DAYS;
+SET @fill_rate = $FILL_RATE;
+SET @password_hash = (SELECT password FROM employees WHERE code = '2');
+SOURCE scripts/generate-data.sql;
+SELECT COUNT(*) AS reports FROM reports;
+SQL
+fi
+
+java -cp benchmarks/target/benchmarks.jar \
+    -DbaseUrl="http://localhost:$PORT" -Dpassword="$LOGIN_PASSWORD" \
+    -Dusers="$USERS" -Dduration="$DURATION" -Dcsv=target/load-test-result.csv \
+    com.techacademy.loadtest.LoadTest
+echo "結果（CSV）: target/load-test-result.csv"
@@ -0,0 +1,33 @@
+package com.techacademy;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValues;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /** 要求ごとの応答時間（http.server.requests）に処理したコントローラのメソッド名を付与する */
+    @Bean
+    public ServerRequestObservationConvention handlerObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                // 例: handler="ReportsController#list"（静的ファイル等、コントローラ以外は"none"）
+                Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                String name = "none";
+                if (handler instanceof HandlerMethod handlerMethod) {
+                    name = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+                }
+                return super.getLowCardinalityKeyValues(context).and("handler", name);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.techacademy;
+
+import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.techacademy.dto.EmployeeListRow;
+import com.techacademy.dto.MissingReports;
+import com.techacademy.dto.ReportMonthlyStatsRow;
+import com.techacademy.dto.ReportMonthlyStatsSummary;
+import com.techacademy.dto.ReportsCalendar;
+import com.techacademy.dto.ReportsCalendarEntry;
+import com.techacademy.dto.ReportsImportResult;
+import com.techacademy.dto.ReportsListRow;
+import com.techacademy.dto.ReportsPage;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Reports;
+import com.techacademy.service.UserDetail;
+
+/** ネイティブイメージ（./mvnw -Pnative native:compile）で実行する際に必要なリフレクション・リソースの指定 */
+@Configuration
+@ImportRuntimeHints(NativeConfiguration.ApplicationRuntimeHints.class)
+// 画面（Thymeleaf）からプロパティ・メソッドを参照するクラス（Lombokが生成したgetter等）
+@RegisterReflectionForBinding({ Employee.class, Reports.class, UserDetail.class, ReportsPage.class,
+        ReportsImportResult.class, ReportsImportResult.RowError.class, ReportsListRow.class, EmployeeListRow.class,
+        ReportMonthlyStatsRow.class, ReportMonthlyStatsSummary.class, MissingReports.class,
+        ReportsCalendar.class, ReportsCalendar.Day.class, ReportsCalendarEntry.class })
+public class NativeConfiguration {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // 画面テンプレート・静的ファイル（ビルド時に圧縮したファイルを含む）・2次キャッシュの設定
+            hints.resources()
+                    .registerPattern("templates/**")
+                    .registerPattern("static/**")
+                    .registerPattern("ehcache.xml");
+
+            // AJPのコネクタはTomcatConfigurationでクラス名から生成するため
+            hints.reflection().registerType(AjpNio2Protocol.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
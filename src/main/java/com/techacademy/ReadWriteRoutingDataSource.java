@@ -0,0 +1,45 @@
+package com.techacademy;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 読み取り専用トランザクション（@Transactional(readOnly = true)）をレプリカへ、それ以外をプライマリへ振り分けるDataSource
+ * (接続の取得をSQLの実行直前まで遅らせ、トランザクション開始時に読み取り専用と指定された接続をレプリカから取得する)
+ */
+public final class ReadWriteRoutingDataSource {
+
+    // 直前に更新した利用者の要求など、読み取り専用でもプライマリから読む場合にtrue（ReadYourWritesFilterが設定する）
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReadWriteRoutingDataSource() {
+    }
+
+    public static DataSource create(DataSource primary, DataSource replica) {
+        AbstractRoutingDataSource readOnly = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return Boolean.TRUE.equals(PRIMARY_PINNED.get()) ? "primary" : "replica";
+            }
+        };
+        readOnly.setTargetDataSources(Map.of("primary", primary, "replica", replica));
+        readOnly.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        return dataSource;
+    }
+
+    // 実行中の要求の読み取りをプライマリに固定する
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PRIMARY_PINNED.remove();
+    }
+}
@@ -0,0 +1,59 @@
+package com.techacademy;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * 登録・更新・削除の直後は、その利用者の読み取りをプライマリから行う（レプリカへの反映遅延で自分の更新が見えないことを防ぐ）
+ * (例: 日報の登録後にリダイレクトされた一覧画面に、登録した日報が表示されること)
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    // 最後に更新を行った日時（エポックミリ秒）を保持するセッション属性名
+    static final String LAST_WRITE_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".LAST_WRITE";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !isReadMethod(request.getMethod());
+        if (write || isWithinWindow(request.getSession(false))) {
+            ReadWriteRoutingDataSource.pinPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+            HttpSession session = request.getSession(false);
+            if (write && session != null && response.getStatus() < 400) {
+                session.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private boolean isWithinWindow(HttpSession session) {
+        if (session == null) {
+            return false;
+        }
+        Object lastWrite = session.getAttribute(LAST_WRITE_ATTRIBUTE);
+        return lastWrite instanceof Long millis && System.currentTimeMillis() - millis < window.toMillis();
+    }
+
+    private static boolean isReadMethod(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+}
@@ -1,27 +1,60 @@
 package com.techacademy;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import com.techacademy.service.UserDetailService;
 
 @Configuration
 public class SecurityConfig {
+    /** 運用監視（/actuator）の認証・認可設定 */
+    // (Prometheusからの取得用にベーシック認証を使う。画面側ではベーシック認証を受け付けない)
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(EndpointRequest.toAnyEndpoint() // /actuator配下のみ対象
+        ).httpBasic(Customizer.withDefaults() // 毎回ベーシック認証で認証する
+        ).sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS) // セッションは作らない
+        ).authorizeHttpRequests(
+                auth -> auth.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll() // 死活監視は未ログインでアクセス可
+                        .anyRequest().hasAnyAuthority("ADMIN")); // メトリクス等は管理者のみ
+
+        return http.build();
+    }
+
     /** 認証・認可設定 */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailService userDetailService)
+            throws Exception {
+        AuthenticationFailureHandler failureRedirect = new SimpleUrlAuthenticationFailureHandler("/login?error");
         http.formLogin(login -> login.loginProcessingUrl("/login") // 従業員番号・パスワードの送信先
                 .loginPage("/login") // ログイン画面
                 .defaultSuccessUrl("/") // ログイン成功後のリダイレクト先
-                .failureUrl("/login?error") // ログイン失敗時のリダイレクト先
+                .failureHandler((request, response, exception) -> {
+                    userDetailService.onLoginFailure(); // ログイン失敗の件数を数える
+                    failureRedirect.onAuthenticationFailure(request, response, exception); // ログイン失敗時のリダイレクト先
+                })
                 .permitAll() // ログイン画面は未ログインでアクセス可
         ).logout(logout -> logout.logoutSuccessUrl("/login") // ログアウト後のリダイレクト先
         ).authorizeHttpRequests(
                 auth -> auth.requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll() // css等は未ログインでアクセス可
-                        .requestMatchers("/employees/**").hasAnyAuthority("ADMIN").anyRequest().authenticated()); // その他はログイン必要
+                        .requestMatchers("/employees/**").hasAnyAuthority("ADMIN")
+                        .requestMatchers("/admin/**").hasAnyAuthority("ADMIN") // 運用向けの情報は管理者のみ
+                        .requestMatchers("/reports/import").hasAnyAuthority("ADMIN") // 日報の一括取込みは管理者のみ
+                        .requestMatchers("/reports/stats/**").hasAnyAuthority("ADMIN") // 提出状況のダッシュボードは管理者のみ
+                        .anyRequest().authenticated()); // その他はログイン必要
 
         return http.build();
     }
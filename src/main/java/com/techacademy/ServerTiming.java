@@ -0,0 +1,107 @@
+package com.techacademy;
+
+import java.util.Locale;
+
+/** 1回の要求の処理時間の内訳（Server-Timingヘッダ・ログに出力する。ServerTimingFilterが要求ごとに作成する） */
+final class ServerTiming {
+
+    // 処理中の要求の内訳（要求を処理するスレッドでのみ参照する）
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    // サービス・リポジトリの呼び出し時間（入れ子の呼び出しは外側の呼び出しのみ数える）
+    enum Phase {
+        SERVICE, DATABASE
+    }
+
+    private final long startNanos = System.nanoTime();
+    private long handlerStartNanos;
+    private long handlerEndNanos;
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final long[] phaseStartNanos = new long[Phase.values().length];
+    private final int[] phaseDepth = new int[Phase.values().length];
+
+    static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // コントローラの処理開始（ここまでがSpring Security等のフィルタの処理時間）
+    void handlerStarted() {
+        handlerStartNanos = System.nanoTime();
+    }
+
+    // コントローラの処理終了（ここからが画面の描画時間）
+    void handlerFinished() {
+        handlerEndNanos = System.nanoTime();
+    }
+
+    void enter(Phase phase) {
+        if (phaseDepth[phase.ordinal()]++ == 0) {
+            phaseStartNanos[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    void exit(Phase phase) {
+        if (--phaseDepth[phase.ordinal()] == 0) {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStartNanos[phase.ordinal()];
+        }
+    }
+
+    // Server-Timingヘッダの値（例: sec;dur=85.2, svc;dur=4.1, db;dur=3.0, view;dur=6.5, total;dur=97.0）
+    // (画面の描画時間・合計は応答の送信開始時点まで)
+    String toHeader() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder();
+        append(header, "sec", filterNanos(now), "filters+security");
+        append(header, "svc", phaseNanos[Phase.SERVICE.ordinal()], "services");
+        append(header, "db", phaseNanos[Phase.DATABASE.ordinal()], "repositories");
+        append(header, "view", viewNanos(now), "rendering");
+        append(header, "total", now - startNanos, null);
+        return header.toString();
+    }
+
+    // ログに出力する値（logfmt形式。例: sec=85.2 svc=4.1 db=3.0 view=6.5 total=97.0）
+    String toLogFields() {
+        long now = System.nanoTime();
+        StringBuilder fields = new StringBuilder();
+        fields.append("sec=").append(millis(filterNanos(now)));
+        fields.append(" svc=").append(millis(phaseNanos[Phase.SERVICE.ordinal()]));
+        fields.append(" db=").append(millis(phaseNanos[Phase.DATABASE.ordinal()]));
+        fields.append(" view=").append(millis(viewNanos(now)));
+        fields.append(" total=").append(millis(now - startNanos));
+        return fields.toString();
+    }
+
+    // コントローラに到達しなかった場合（ログイン画面へのリダイレクト等）は全てフィルタの処理時間とする
+    private long filterNanos(long now) {
+        return (handlerStartNanos == 0 ? now : handlerStartNanos) - startNanos;
+    }
+
+    private long viewNanos(long now) {
+        return handlerEndNanos == 0 ? 0 : now - handlerEndNanos;
+    }
+
+    private static void append(StringBuilder header, String name, long nanos, String description) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(millis(nanos));
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
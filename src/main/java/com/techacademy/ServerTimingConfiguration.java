@@ -0,0 +1,99 @@
+package com.techacademy;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 要求ごとの処理時間の内訳（フィルタ・Spring Security／サービス／リポジトリ／画面の描画）の計測
+ * (app.server-timing.enabled=trueの場合のみ有効。無効の場合はフィルタ・プロキシを登録しないため処理時間に影響しない)
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfiguration implements WebMvcConfigurer {
+
+    /** Spring Securityを含む全てのフィルタより先に実行する */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /** コントローラの処理の開始・終了を記録する */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerStarted();
+                }
+                return true;
+            }
+
+            @Override
+            public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                    ModelAndView modelAndView) {
+                ServerTiming timing = ServerTiming.current();
+                if (timing != null) {
+                    timing.handlerFinished();
+                }
+            }
+        });
+    }
+
+    /** サービス（@Service）・リポジトリ（@Repository）の呼び出し時間を記録する */
+    @Bean
+    public static ServerTimingPostProcessor serverTimingPostProcessor() {
+        return new ServerTimingPostProcessor();
+    }
+
+    static class ServerTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        private static final long serialVersionUID = 1L;
+
+        ServerTimingPostProcessor() {
+            ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Service.class, true))
+                    .union(new AnnotationMatchingPointcut(Repository.class, true));
+            this.advisor = new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) invocation -> {
+                ServerTiming timing = ServerTiming.current();
+                if (timing == null) {
+                    return invocation.proceed();
+                }
+                ServerTiming.Phase phase = invocation.getThis() != null
+                        && AnnotatedElementUtils.hasAnnotation(invocation.getThis().getClass(), Repository.class)
+                                ? ServerTiming.Phase.DATABASE
+                                : ServerTiming.Phase.SERVICE;
+                timing.enter(phase);
+                try {
+                    return invocation.proceed();
+                } finally {
+                    timing.exit(phase);
+                }
+            });
+            // トランザクションの開始・コミットも含めて計測する
+            setBeforeExistingAdvisors(true);
+            // @EventListener等、インターフェースに無いメソッドを持つサービスがあるためクラスのプロキシとする
+            setProxyTargetClass(true);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.techacademy;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/** 要求ごとの処理時間の内訳をServer-Timingヘッダとログに出力する（app.server-timing.enabled=trueの場合のみ登録する） */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.start();
+        ServerTimingResponse timingResponse = new ServerTimingResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            // 本文のない応答（304等）は送信開始を検知できないため、ここでヘッダを設定する
+            timingResponse.writeHeader();
+            ServerTiming.clear();
+            log.info("server-timing method={} uri={} status={} {}", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), timing.toLogFields());
+        }
+    }
+
+    // 応答の送信開始（ヘッダの確定）の直前にServer-Timingヘッダを設定する
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final HttpServletResponse response;
+        private final ServerTiming timing;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.response = response;
+            this.timing = timing;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            if (!written && !response.isCommitted()) {
+                response.setHeader("Server-Timing", timing.toHeader());
+            }
+            written = true;
+        }
+    }
+}
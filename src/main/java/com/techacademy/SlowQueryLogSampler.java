@@ -0,0 +1,32 @@
+package com.techacademy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/** スロークエリのログを1分あたりの上限件数まで出力し、それを超えた分は捨てる（logback-spring.xmlで使用） */
+public class SlowQueryLogSampler extends Filter<ILoggingEvent> {
+
+    private int maxPerMinute = 60;
+
+    private final AtomicLong currentMinute = new AtomicLong();
+    private final AtomicInteger count = new AtomicInteger();
+
+    public void setMaxPerMinute(int maxPerMinute) {
+        this.maxPerMinute = maxPerMinute;
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        // 1分ごとに件数を数え直す
+        long minute = event.getTimeStamp() / 60_000;
+        long current = currentMinute.get();
+        if (minute != current && currentMinute.compareAndSet(current, minute)) {
+            count.set(0);
+        }
+        return count.incrementAndGet() <= maxPerMinute ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
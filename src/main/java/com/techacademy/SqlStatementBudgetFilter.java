@@ -0,0 +1,55 @@
+package com.techacademy;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/** 1回の要求で発行されたSQLの件数を数え、上限を超えた場合は警告をログに出力する（N+1の検出用） */
+@Component
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    // 要求で発行されたSQLの件数を保持するリクエスト属性名（テストで件数を確認する際に使用する）
+    public static final String STATEMENT_COUNT_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".COUNT";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final int budget;
+
+    public SqlStatementBudgetFilter(SqlStatementCounter counter,
+            @Value("${app.sql.statement-budget:20}") int budget) {
+        this.counter = counter;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // 既に数えている場合（フォワード等）は外側の要求でまとめて数える
+        if (counter.isCounting()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        counter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int count = counter.stop();
+            request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, count);
+            if (count > budget) {
+                log.warn("SQL statement budget exceeded: {} {} issued {} statements (budget {})", request.getMethod(),
+                        request.getRequestURI(), count, budget);
+            }
+        }
+    }
+}
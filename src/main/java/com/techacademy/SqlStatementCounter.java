@@ -0,0 +1,47 @@
+package com.techacademy;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/** 実行中のスレッドで発行されたSQLの件数を数える（Hibernateが発行する全てのSQLが対象） */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    // 数えている間だけ値を持つ（start()からstop()まで）
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    // 件数を0から数え始める
+    public void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // 数えるのをやめて、start()からの件数を返す
+    public int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    // 数えている途中かどうか
+    public boolean isCounting() {
+        return COUNT.get() != null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    /** 静的ファイル（css・js）の配信設定 */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        addVersionedResourceHandler(registry, "css");
+        addVersionedResourceHandler(registry, "js");
+    }
+
+    // URLにファイル内容のハッシュを付与し（例: /css/bootstrap.min-<ハッシュ>.css）、内容が変わればURLも変わるため
+    // ブラウザには1年間、再検証なしでキャッシュさせる
+    // (テンプレートの@{}はResourceUrlEncodingFilterによりハッシュ付きのURLに書き換えられる)
+    // ビルド時に作成した圧縮済みファイル（.br・.gz）があれば、Accept-Encodingに応じてそちらを返す
+    private void addVersionedResourceHandler(ResourceHandlerRegistry registry, String directory) {
+        registry.addResourceHandler("/" + directory + "/**")
+                .addResourceLocations("classpath:/static/" + directory + "/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+}
@@ -2,13 +2,22 @@ package com.techacademy; // ご自身の環境に合わせてください
 
 import org.apache.catalina.connector.Connector;
 import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.boot.thread.Threading;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
 
+    private final Environment environment;
+
+    public TomcatConfiguration(Environment environment) {
+        this.environment = environment;
+    }
+
     @Override
     public void customize(TomcatServletWebServerFactory factory) {
         // Tomcatとの通信手段にAJPを追加
@@ -26,7 +35,13 @@ public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatSer
         AjpNio2Protocol protocol = (AjpNio2Protocol) connector.getProtocolHandler();
         protocol.setSecretRequired(false);
 
+        // 仮想スレッドモード（spring.threads.virtual.enabled=true かつ Java 21以上）ではAJPの要求も仮想スレッドで処理する
+        // (HTTPのコネクタはSpring Bootが同じ設定で仮想スレッドに切り替える。追加のコネクタは対象外のためここで設定する)
+        if (Threading.VIRTUAL.isActive(environment)) {
+            protocol.setExecutor(new VirtualThreadExecutor("tomcat-ajp-"));
+        }
+
         return connector;
     }
 
-}
\ No newline at end of file
+}
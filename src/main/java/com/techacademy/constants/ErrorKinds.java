@@ -18,6 +18,10 @@ public enum ErrorKinds {
     LOGINCHECK_ERROR,
     // 日付チェックエラー
     DATECHECK_ERROR,
+    // ファイル未選択エラー
+    FILEBLANK_ERROR,
+    // 同時更新チェックエラー(楽観的ロック)
+    OPTIMISTIC_LOCK_ERROR,
     // チェックOK
     CHECK_OK,
     // 正常終了
@@ -32,6 +32,11 @@ public class ErrorMessage {
                     new ArrayList<String>(Arrays.asList("deleteError", "ログイン中の従業員を削除することは出来ません")));
             // 同一日付チェック用エラーメッセージ
             put(ErrorKinds.DATECHECK_ERROR, new ArrayList<String>(Arrays.asList("reportDateError", "既に登録されている日付です")));
+            // 取込みファイル未選択チェック用エラーメッセージ
+            put(ErrorKinds.FILEBLANK_ERROR, new ArrayList<String>(Arrays.asList("fileError", "ファイルを選択してください")));
+            // 同時更新チェック用エラーメッセージ
+            put(ErrorKinds.OPTIMISTIC_LOCK_ERROR, new ArrayList<String>(
+                    Arrays.asList("optimisticLockError", "他の利用者が先に更新しました。最新の内容を確認してから再度更新してください")));
         }
     };
 
@@ -0,0 +1,59 @@
+package com.techacademy.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Controller
+@RequestMapping("admin")
+public class CacheStatisticsController {
+
+    private final Statistics statistics;
+
+    @Autowired
+    public CacheStatisticsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // 2次キャッシュ・クエリキャッシュのヒット・ミス数（キャッシュサイズの調整用）
+    // (hibernate.generate_statisticsがfalseの場合は集計されない)
+    @GetMapping(value = "/cache-statistics", produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+
+        // 領域ごとの集計
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("hitCount", region.getHitCount());
+            values.put("missCount", region.getMissCount());
+            values.put("putCount", region.getPutCount());
+            values.put("elementCountInMemory", region.getElementCountInMemory());
+            regions.put(regionName, values);
+        }
+        result.put("secondLevelCache", regions);
+
+        // クエリキャッシュの集計
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hitCount", statistics.getQueryCacheHitCount());
+        queryCache.put("missCount", statistics.getQueryCacheMissCount());
+        queryCache.put("putCount", statistics.getQueryCachePutCount());
+        result.put("queryCache", queryCache);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.techacademy.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+// 条件付きGET（ETag・Last-Modified）の判定
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    // 前回の表示から変更がなければ304（Not Modified）を返すよう設定してtrueを返す
+    // (画面の描画やエンティティの取得より前に、更新日時だけを取得して呼び出す)
+    // (ETagはセッションごとに分ける。画面にCSRFトークンやログインユーザーの権限に応じた表示を含むため)
+    static boolean isNotModified(WebRequest request, HttpServletResponse response, LocalDateTime lastModified,
+            Object... versions) {
+        // ブラウザには保存させるが、表示のたびに再検証させる
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (lastModified == null) {
+            return false;
+        }
+
+        StringBuilder source = new StringBuilder(request.getSessionId()).append('|').append(lastModified);
+        for (Object version : versions) {
+            source.append('|').append(version);
+        }
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        long lastModifiedMillis = lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        return request.checkNotModified(etag, lastModifiedMillis);
+    }
+}
@@ -1,9 +1,11 @@
 package com.techacademy.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,14 +16,19 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
 
+import com.techacademy.dto.EmployeeListRow;
 import com.techacademy.entity.Employee;
 import com.techacademy.service.EmployeeService;
 import com.techacademy.service.UserDetail;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @Controller
 @RequestMapping("employees")
 public class EmployeeController {
@@ -34,18 +41,44 @@ public class EmployeeController {
     }
 
     // 従業員一覧画面
+    // (氏名・社員番号・権限で絞り込み、sortで指定した項目で並べ替えて1ページ分を表示する)
     @GetMapping
-    public String list(Model model) {
-        List<Employee> employees = employeeService.findAll();
-        model.addAttribute("listSize", employeeService.findAll().size());
-        model.addAttribute("employeeList", employees);
+    public String list(Model model, @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "code", required = false) String code,
+            @RequestParam(value = "role", required = false) Employee.Role role,
+            @PageableDefault(size = 20, sort = "code") Pageable pageable,
+            WebRequest webRequest, HttpServletResponse response) {
+        // 前回の表示から従業員が変更されていなければ一覧を取得せずに304を返す
+        // (絞り込み・並べ替え条件はURLが異なるためETagには含めない)
+        if (ConditionalGet.isNotModified(webRequest, response, employeeService.findLastModified(),
+                employeeService.count())) {
+            return null;
+        }
+
+        Page<EmployeeListRow> page = employeeService.findListPage(name, code, role, pageable);
+        Sort.Order order = page.getSort().iterator().next();
+
+        model.addAttribute("page", page);
+        model.addAttribute("listSize", page.getTotalElements());
+        model.addAttribute("employeeList", page.getContent());
+        model.addAttribute("name", name);
+        model.addAttribute("code", code);
+        model.addAttribute("role", role);
+        model.addAttribute("roles", Employee.Role.values());
+        model.addAttribute("sortProperty", order.getProperty());
+        model.addAttribute("sortDirection", order.getDirection().name());
 
         return "employees/list";
     }
 
     // 従業員詳細画面
     @GetMapping(value = "/{code}/")
-    public String detail(@PathVariable("code") String code, Model model) {
+    public String detail(@PathVariable("code") String code, Model model, WebRequest webRequest,
+            HttpServletResponse response) {
+        // 前回の表示から従業員が変更されていなければ従業員を取得せずに304を返す
+        if (ConditionalGet.isNotModified(webRequest, response, employeeService.findUpdatedAtByCode(code))) {
+            return null;
+        }
 
         model.addAttribute("employee", employeeService.findByCode(code));
         return "employees/detail";
@@ -109,7 +142,7 @@ public class EmployeeController {
         if (ErrorMessage.contains(result)) {
             model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
             model.addAttribute("employee", employeeService.findByCode(code));
-            return detail(code, model);
+            return "employees/detail";
         }
 
         return "redirect:/employees";
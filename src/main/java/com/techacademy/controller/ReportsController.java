@@ -1,10 +1,18 @@
 package com.techacademy.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.YearMonth;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,41 +23,132 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
 
+import com.techacademy.dto.ReportsImportResult;
+import com.techacademy.dto.ReportsPage;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Reports;
-import com.techacademy.service.EmployeeService;
+import com.techacademy.service.LoginEmployeeResolver;
+import com.techacademy.service.ReportsCsvService;
 import com.techacademy.service.ReportsService;
 import com.techacademy.service.UserDetail;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @Controller
 @RequestMapping("reports")
 public class ReportsController {
 
     private final ReportsService reportsService;
-    private final EmployeeService employeeService;
+    private final ReportsCsvService reportsCsvService;
+    private final LoginEmployeeResolver loginEmployeeResolver;
 
     @Autowired
-    public ReportsController(ReportsService reportsService, EmployeeService employeeService) {
+    public ReportsController(ReportsService reportsService, ReportsCsvService reportsCsvService,
+            LoginEmployeeResolver loginEmployeeResolver) {
         this.reportsService = reportsService;
-        this.employeeService = employeeService;
+        this.reportsCsvService = reportsCsvService;
+        this.loginEmployeeResolver = loginEmployeeResolver;
     }
 
     // 日報一覧画面
+    // (date・idで指定した日報をカーソルとして、dirの方向へ1ページ分を表示する)
+    // (keywordを指定した場合は、タイトル・内容にキーワードを含む日報のみ表示する)
     @GetMapping
-    public String list(Model model, @AuthenticationPrincipal UserDetail userDetail) {
-        List<Reports> reports = reportsService.findByUserAuthority(userDetail);
-        model.addAttribute("reportsList", reports);
-        model.addAttribute("listSize", reports.size());
+    public String list(Model model, @AuthenticationPrincipal UserDetail userDetail,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "id", required = false) Integer id,
+            @RequestParam(value = "dir", defaultValue = "NEXT") ReportsPage.Direction dir,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            WebRequest webRequest, HttpServletResponse response) {
+        // 前回の表示から日報・従業員が変更されていなければ一覧を取得せずに304を返す
+        if (ConditionalGet.isNotModified(webRequest, response,
+                reportsService.findLastModifiedByUserAuthority(userDetail), userDetail.getEmployee().getCode())) {
+            return null;
+        }
+
+        ReportsPage page;
+        if (keyword == null || keyword.isBlank()) {
+            page = reportsService.findPageByUserAuthority(userDetail, date, id, dir);
+            model.addAttribute("listSize", reportsService.countByUserAuthority(userDetail));
+        } else {
+            // 検索時は件数を数えない（一致件数が多い語でも応答時間を一定にするため）
+            page = reportsService.searchPageByUserAuthority(userDetail, keyword, date, id, dir);
+            model.addAttribute("keyword", keyword);
+        }
+        model.addAttribute("page", page);
+        model.addAttribute("reportsList", page.getContent());
         return "reports/list";
     }
 
+    // 日報カレンダー画面（ログインユーザーの1か月分。monthを省略した場合は今月）
+    @GetMapping(value = "/calendar")
+    public String calendar(@AuthenticationPrincipal UserDetail userDetail,
+            @RequestParam(value = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            Model model, WebRequest webRequest, HttpServletResponse response) {
+        YearMonth target = month == null ? YearMonth.now() : month;
+
+        // その従業員の日報が登録・更新・削除されるまでは、カレンダーを取得せずに304を返す
+        if (ConditionalGet.isNotModified(webRequest, response, reportsService.findCalendarLastModified(userDetail),
+                target, reportsService.findCalendarDayBits(userDetail, target))) {
+            return null;
+        }
+
+        model.addAttribute("calendar", reportsService.findCalendar(userDetail, target));
+        return "reports/calendar";
+    }
+
+    // 日報CSV出力
+    // (monthを指定した場合はその月のみ。レスポンスへ直接書き出すため件数によらずメモリ使用量は一定)
+    @GetMapping(value = "/export.csv")
+    public ResponseEntity<StreamingResponseBody> export(@AuthenticationPrincipal UserDetail userDetail,
+            @RequestParam(value = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        StreamingResponseBody body = outputStream -> reportsCsvService.exportCsv(userDetail, month, outputStream);
+        String filename = month == null ? "reports.csv" : "reports-" + month + ".csv";
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // 日報一括取込み画面（管理者のみ）
+    @GetMapping(value = "/import")
+    public String importForm() {
+        return "reports/import";
+    }
+
+    // 日報一括取込み処理（管理者のみ）
+    @PostMapping(value = "/import")
+    public String importCsv(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        // ファイル未選択チェック
+        if (file.isEmpty()) {
+            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.FILEBLANK_ERROR),
+                    ErrorMessage.getErrorValue(ErrorKinds.FILEBLANK_ERROR));
+            return "reports/import";
+        }
+
+        ReportsImportResult result = reportsCsvService.importCsv(file.getInputStream());
+        model.addAttribute("result", result);
+        return "reports/import";
+    }
+
     // 日報詳細画面
     @GetMapping(value = "/{id}")
-    public String detail(@PathVariable Integer id, Model model) {
+    public String detail(@PathVariable Integer id, Model model, WebRequest webRequest,
+            HttpServletResponse response) {
+        // 前回の表示から日報・従業員が変更されていなければ日報を取得せずに304を返す
+        if (ConditionalGet.isNotModified(webRequest, response, reportsService.findUpdatedAtById(id))) {
+            return null;
+        }
+
         Reports report = reportsService.findById(id);
         model.addAttribute("report", report);
         return "reports/detail";
@@ -59,7 +158,7 @@ public class ReportsController {
     @GetMapping(value = "/add")
     public String create(Model model, Principal principal) {
         Reports report = new Reports();
-        Employee loginUser = employeeService.findByCode(principal.getName());
+        Employee loginUser = loginEmployeeResolver.resolve(principal.getName());
         // ログイン中の従業員情報の氏名欄を表示
         report.setName(loginUser.getName());
         model.addAttribute("report", report);
@@ -69,7 +168,7 @@ public class ReportsController {
     // 日報新規登録処理
     @PostMapping(value = "/add")
     public String add(@Validated @ModelAttribute("report") Reports report, BindingResult res, Principal principal, Model model) {
-        Employee loginUser = employeeService.findByCode(principal.getName());
+        Employee loginUser = loginEmployeeResolver.resolve(principal.getName());
 
         // 入力チェック
         if (res.hasErrors()) {
@@ -78,16 +177,10 @@ public class ReportsController {
             report.setEmployeeCode(loginUser.getCode());
             return "reports/new";
         }
-        // 日付重複チェック
-        if (reportsService.isDuplicateReport(loginUser, report.getReportDate())) {
-            report.setName(loginUser.getName());
-            model.addAttribute("report", report);
-            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.DATECHECK_ERROR),ErrorMessage.getErrorValue(ErrorKinds.DATECHECK_ERROR));
-            return "reports/new";
-        }
 
         // 論理削除を行った従業員番号を指定すると例外となるためtry~catchで対応
         // (findByIdでは削除フラグがTRUEのデータが取得出来ないため)
+        // 日付重複はDBの一意制約違反として検出する
         try {
             // 氏名をセットする
             report.setName(loginUser.getName());
@@ -103,8 +196,9 @@ public class ReportsController {
             }
 
         } catch (DataIntegrityViolationException e) {
-            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.DUPLICATE_EXCEPTION_ERROR),
-                    ErrorMessage.getErrorValue(ErrorKinds.DUPLICATE_EXCEPTION_ERROR));
+            ErrorKinds error = reportsService.isDuplicateReportDate(e) ? ErrorKinds.DATECHECK_ERROR
+                    : ErrorKinds.DUPLICATE_EXCEPTION_ERROR;
+            model.addAttribute(ErrorMessage.getErrorName(error), ErrorMessage.getErrorValue(error));
             model.addAttribute("report", report);
             model.addAttribute("employeeName", loginUser.getName());
             report.setName(loginUser.getName());
@@ -123,7 +217,7 @@ public class ReportsController {
         if (ErrorMessage.contains(result)) {
             model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
             model.addAttribute("report", reportsService.findById(id));
-            return detail(id, model);
+            return "reports/detail";
         }
 
         return "redirect:/reports";
@@ -134,10 +228,9 @@ public class ReportsController {
     @GetMapping(value = "/{id}/update")
     public String update(@PathVariable Integer id, Model model, Principal principal) {
         Reports report = reportsService.findById(id);
-        System.out.println("reportDate = " + report.getReportDate()); //
         // 氏名が null または空ならログイン中の従業員情報から補完
         if (report.getName() == null || report.getName().isEmpty()) {
-            Employee loginUser = employeeService.findByCode(principal.getName());
+            Employee loginUser = loginEmployeeResolver.resolve(principal.getName());
             report.setName(loginUser.getName());
         }
         model.addAttribute("report", report);
@@ -147,7 +240,7 @@ public class ReportsController {
     // 日報更新処理
     @PostMapping(value = "/{id}/update")
     public String update(@Validated @ModelAttribute("report") Reports report, BindingResult res, Model model, Principal principal) {
-        Employee loginUser = employeeService.findByCode(principal.getName());
+        Employee loginUser = loginEmployeeResolver.resolve(principal.getName());
 
         //入力チェック
         if (res.hasErrors()) {
@@ -156,23 +249,27 @@ public class ReportsController {
             model.addAttribute("report", report);
             return "reports/edit";
         }
-        // 日付重複チェック（更新時は現在のIDと異なる場合のみエラー）
-        if (reportsService.isDuplicateReportForUpdate(loginUser.getCode(), report.getReportDate(), report.getId())) {
-            report.setName(loginUser.getName());
-            model.addAttribute("report", report);
-            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.DATECHECK_ERROR),
-                    ErrorMessage.getErrorValue(ErrorKinds.DATECHECK_ERROR));
-            return "reports/edit";
-        }
 
         // 論理削除を行った従業員番号を指定すると例外となるためtry~catchで対応
         // (findByIdでは削除フラグがTRUEのデータが取得出来ないため)
+        // 日付重複（自分以外の同じ日付の日報）はDBの一意制約違反として検出する
         try {
             //ログインユーザーを取得してセットする
             report.setEmployee(loginUser);
             report.setName(loginUser.getName());
             ErrorKinds result = reportsService.update(report);
 
+            // 同時更新の場合は最新の内容を表示し直す（削除済みの場合は一覧へ戻る）
+            if (ErrorKinds.OPTIMISTIC_LOCK_ERROR == result) {
+                Reports latest = reportsService.findById(report.getId());
+                if (latest == null) {
+                    return "redirect:/reports";
+                }
+                model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
+                model.addAttribute("report", latest);
+                return "reports/edit";
+            }
+
             if (ErrorMessage.contains(result)) {
                 model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
                 model.addAttribute("report", report);
@@ -180,8 +277,9 @@ public class ReportsController {
             }
 
         } catch (DataIntegrityViolationException e) {
-            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.DUPLICATE_EXCEPTION_ERROR),
-                    ErrorMessage.getErrorValue(ErrorKinds.DUPLICATE_EXCEPTION_ERROR));
+            ErrorKinds error = reportsService.isDuplicateReportDate(e) ? ErrorKinds.DATECHECK_ERROR
+                    : ErrorKinds.DUPLICATE_EXCEPTION_ERROR;
+            model.addAttribute(ErrorMessage.getErrorName(error), ErrorMessage.getErrorValue(error));
             model.addAttribute("report", report);
             return "reports/edit";
         }
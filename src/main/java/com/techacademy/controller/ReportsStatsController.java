@@ -0,0 +1,96 @@
+package com.techacademy.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.techacademy.dto.MissingReports;
+import com.techacademy.service.ReportsStatsService;
+
+// 日報の提出状況のダッシュボード（管理者のみ）
+@Controller
+@RequestMapping("reports/stats")
+public class ReportsStatsController {
+
+    // ダッシュボードに表示する月数
+    private static final int MONTHS = 6;
+
+    // 未提出者の画面の1ページあたりの従業員数と、指定できる期間の上限（日数）
+    private static final int MISSING_PAGE_SIZE = 100;
+    private static final int MISSING_MAX_DAYS = 366;
+
+    private final ReportsStatsService reportsStatsService;
+
+    public ReportsStatsController(ReportsStatsService reportsStatsService) {
+        this.reportsStatsService = reportsStatsService;
+    }
+
+    // 指定した月（省略時は今月）までの6か月分を表示する
+    @GetMapping
+    public String stats(@RequestParam(value = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            Model model) {
+        LocalDate today = LocalDate.now();
+        YearMonth toMonth = to == null ? YearMonth.from(today) : to;
+        YearMonth fromMonth = toMonth.minusMonths(MONTHS - 1);
+
+        List<YearMonth> months = new ArrayList<>(MONTHS);
+        for (int i = 0; i < MONTHS; i++) {
+            months.add(fromMonth.plusMonths(i));
+        }
+
+        model.addAttribute("months", months);
+        model.addAttribute("summaries", reportsStatsService.findSummaries(fromMonth, toMonth, today));
+        model.addAttribute("prevMonth", toMonth.minusMonths(MONTHS));
+        model.addAttribute("nextMonth", toMonth.plusMonths(MONTHS));
+        return "reports/stats";
+    }
+
+    // 指定した期間（省略時は今月1日から今日まで）に日報を提出していない従業員と日付
+    // (社員番号をカーソルにして、1ページ分の従業員のみを判定する)
+    @GetMapping("/missing")
+    public String missing(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+            @RequestParam(value = "after", required = false) String after, Model model) {
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = from == null ? today.withDayOfMonth(1) : from;
+        LocalDate toDate = to == null ? today : to;
+        model.addAttribute("from", fromDate);
+        model.addAttribute("to", toDate);
+
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MISSING_MAX_DAYS) {
+            model.addAttribute("rangeError", "期間は" + MISSING_MAX_DAYS + "日以内で指定してください");
+            model.addAttribute("missingList", List.of());
+            return "reports/missing";
+        }
+
+        // 1件多く取得して、続きのページがあるかを判定する
+        List<MissingReports> missingReports = reportsStatsService.findMissingReports(fromDate, toDate, today, after,
+                MISSING_PAGE_SIZE + 1);
+        boolean hasNext = missingReports.size() > MISSING_PAGE_SIZE;
+        List<MissingReports> missingList = hasNext ? missingReports.subList(0, MISSING_PAGE_SIZE) : missingReports;
+        model.addAttribute("missingList", missingList);
+        model.addAttribute("isFirstPage", after == null || after.isEmpty());
+        model.addAttribute("hasNext", hasNext);
+        model.addAttribute("nextAfter", hasNext ? missingList.get(missingList.size() - 1).getEmployeeCode() : null);
+        return "reports/missing";
+    }
+
+    // 日報テーブルから集計を作り直す（定期実行を設定していない場合や、SQLで日報を直接変更した後に使う）
+    @PostMapping("/rebuild")
+    public String rebuild(RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("rebuiltRows", reportsStatsService.rebuild());
+        return "redirect:/reports/stats";
+    }
+}
@@ -0,0 +1,16 @@
+package com.techacademy.dto;
+
+import com.techacademy.entity.Employee;
+
+// 従業員一覧の1行分（一覧に表示する項目だけを取得する読み取り専用のプロジェクション）
+public interface EmployeeListRow {
+
+    // 社員番号
+    String getCode();
+
+    // 氏名
+    String getName();
+
+    // 権限
+    Employee.Role getRole();
+}
@@ -0,0 +1,22 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 日報の未提出者の1行分（従業員ごとの未提出の日）
+@Getter
+@AllArgsConstructor
+public class MissingReports {
+
+    // 社員番号
+    private final String employeeCode;
+
+    // 氏名
+    private final String employeeName;
+
+    // 日報を提出していない平日（古い順）
+    private final List<LocalDate> missingDates;
+}
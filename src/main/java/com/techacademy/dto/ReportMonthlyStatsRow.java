@@ -0,0 +1,19 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+
+// 従業員ごと・月ごとの日報の提出状況（ダッシュボード用の集計を氏名と結合して取得するプロジェクション）
+public interface ReportMonthlyStatsRow {
+
+    // 社員番号
+    String getEmployeeCode();
+
+    // 氏名（従業員テーブルから結合して取得）
+    String getEmployeeName();
+
+    // 月（月初日。期間内に集計のない従業員はnull）
+    LocalDate getReportMonth();
+
+    // 日報を提出した日のビット（1日がbit0。期間内に集計のない従業員はnull）
+    Integer getDayBits();
+}
@@ -0,0 +1,32 @@
+package com.techacademy.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// ダッシュボードの1行分（従業員ごとの月別の日報件数と連続提出日数）
+@Getter
+@AllArgsConstructor
+public class ReportMonthlyStatsSummary {
+
+    // 社員番号
+    private final String employeeCode;
+
+    // 氏名
+    private final String employeeName;
+
+    // 月別の日報件数（表示する月の古い順）
+    private final List<Integer> monthlyCounts;
+
+    // 現在まで連続して提出している平日の日数（当日が未提出の場合は前日まで）
+    private final int currentStreak;
+
+    // 表示する期間内で最も長く連続して提出した平日の日数
+    private final int longestStreak;
+
+    // 表示する期間内の合計件数
+    public int getTotalCount() {
+        return monthlyCounts.stream().mapToInt(Integer::intValue).sum();
+    }
+}
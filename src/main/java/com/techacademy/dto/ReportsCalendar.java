@@ -0,0 +1,67 @@
+package com.techacademy.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 1か月分のカレンダー（日曜始まりの週ごとの日と、その日の日報）
+@Getter
+public class ReportsCalendar {
+
+    // カレンダーの1日分
+    @Getter
+    @AllArgsConstructor
+    public static class Day {
+        // 日付
+        private final LocalDate date;
+
+        // 表示する月の日か（前後の月の日は日付のみ薄く表示する）
+        private final boolean inMonth;
+
+        // その日の日報（なければnull）
+        private final ReportsCalendarEntry report;
+    }
+
+    // 表示する月
+    private final YearMonth month;
+
+    // 週ごとの日（1週7日）
+    private final List<List<Day>> weeks;
+
+    public ReportsCalendar(YearMonth month, List<ReportsCalendarEntry> reports) {
+        this.month = month;
+
+        Map<LocalDate, ReportsCalendarEntry> byDate = new HashMap<>();
+        for (ReportsCalendarEntry report : reports) {
+            byDate.put(report.getReportDate(), report);
+        }
+
+        this.weeks = new ArrayList<>();
+        LocalDate date = month.atDay(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        while (!date.isAfter(month.atEndOfMonth())) {
+            List<Day> week = new ArrayList<>(7);
+            for (int i = 0; i < 7; i++, date = date.plusDays(1)) {
+                boolean inMonth = YearMonth.from(date).equals(month);
+                week.add(new Day(date, inMonth, inMonth ? byDate.get(date) : null));
+            }
+            weeks.add(week);
+        }
+    }
+
+    // 前月・翌月
+    public YearMonth getPreviousMonth() {
+        return month.minusMonths(1);
+    }
+
+    public YearMonth getNextMonth() {
+        return month.plusMonths(1);
+    }
+}
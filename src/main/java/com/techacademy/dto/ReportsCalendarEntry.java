@@ -0,0 +1,16 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+
+// カレンダーに表示する日報（日付・ID・タイトルだけを取得する読み取り専用のプロジェクション）
+public interface ReportsCalendarEntry {
+
+    // ID
+    Integer getId();
+
+    // 日付
+    LocalDate getReportDate();
+
+    // タイトル
+    String getTitle();
+}
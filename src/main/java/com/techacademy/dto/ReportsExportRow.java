@@ -0,0 +1,32 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// CSV出力の1行分（読み取り専用のプロジェクション）
+public interface ReportsExportRow {
+
+    // ID
+    Integer getId();
+
+    // 社員番号
+    String getEmployeeCode();
+
+    // 氏名
+    String getEmployeeName();
+
+    // 日付
+    LocalDate getReportDate();
+
+    // タイトル
+    String getTitle();
+
+    // 内容
+    String getContent();
+
+    // 登録日時
+    LocalDateTime getCreatedAt();
+
+    // 更新日時
+    LocalDateTime getUpdatedAt();
+}
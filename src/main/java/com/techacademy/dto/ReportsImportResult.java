@@ -0,0 +1,68 @@
+package com.techacademy.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+// 日報の一括取込み結果
+@Getter
+public class ReportsImportResult {
+
+    // 保持するエラーの上限（大量エラー時にメモリを使い切らないため）
+    public static final int MAX_ERRORS = 1000;
+
+    // 行ごとのエラー
+    @Getter
+    public static class RowError {
+        // 行番号（見出し行を1行目とする）
+        private final long row;
+
+        // エラー内容
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+    }
+
+    // 読み込んだデータ行数（見出し行を除く）
+    private long totalRows;
+
+    // 登録した件数
+    private long importedRows;
+
+    // エラーの件数（上限を超えた分も含む）
+    private long errorCount;
+
+    // エラーの内容（先頭からMAX_ERRORS件まで）
+    private final List<RowError> errors = new ArrayList<>();
+
+    // 処理時間（ミリ秒）
+    private long elapsedMillis;
+
+    public void countRow() {
+        totalRows++;
+    }
+
+    public void addImported(long count) {
+        importedRows += count;
+    }
+
+    public void addError(long row, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // 1秒あたりの登録件数
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? importedRows : importedRows * 1000 / elapsedMillis;
+    }
+}
@@ -0,0 +1,19 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+
+// 日報一覧の1行分（一覧に表示する項目だけを取得する読み取り専用のプロジェクション）
+public interface ReportsListRow {
+
+    // ID
+    Integer getId();
+
+    // 日付
+    LocalDate getReportDate();
+
+    // タイトル
+    String getTitle();
+
+    // 氏名（従業員テーブルから結合して取得）
+    String getEmployeeName();
+}
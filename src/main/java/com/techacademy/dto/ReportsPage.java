@@ -0,0 +1,45 @@
+package com.techacademy.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 日報一覧の1ページ分（キーセットページング用）
+@Getter
+@AllArgsConstructor
+public class ReportsPage {
+
+    // ページング方向
+    public static enum Direction {
+        NEXT, PREV;
+    }
+
+    // 表示する日報（(日付, ID)の降順）
+    private final List<ReportsListRow> content;
+
+    // 次ページ（より古い日報）があるか
+    private final boolean hasNext;
+
+    // 前ページ（より新しい日報）があるか
+    private final boolean hasPrevious;
+
+    // 次ページのカーソル（ページ末尾の日報）
+    public LocalDate getNextDate() {
+        return content.isEmpty() ? null : content.get(content.size() - 1).getReportDate();
+    }
+
+    public Integer getNextId() {
+        return content.isEmpty() ? null : content.get(content.size() - 1).getId();
+    }
+
+    // 前ページのカーソル（ページ先頭の日報）
+    public LocalDate getPrevDate() {
+        return content.isEmpty() ? null : content.get(0).getReportDate();
+    }
+
+    public Integer getPrevId() {
+        return content.isEmpty() ? null : content.get(0).getId();
+    }
+}
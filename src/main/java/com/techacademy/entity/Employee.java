@@ -3,9 +3,12 @@ package com.techacademy.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,6 +17,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,6 +33,9 @@ import lombok.Setter;
 @Entity
 @Table(name = "employees")
 @SQLRestriction("delete_flg = false")
+// 2次キャッシュの対象（論理削除済みもキャッシュに残り得るため、取得側で削除フラグを確認する）
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 
 public class Employee {
 
@@ -72,14 +79,19 @@ public class Employee {
     @Column(name = "delete_flg", columnDefinition = "TINYINT", nullable = false)
     private boolean deleteFlg;
 
-    // 登録日時
-    @Column(nullable = false)
+    // 登録日時（更新時は変更しない）
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     // 更新日時
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // 楽観的ロック用のバージョン（更新画面の表示時点から他の利用者が更新していれば更新しない）
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
     @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL)
     private List<Reports> reportList;
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.techacademy.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 従業員ごと・月ごとの日報の提出状況（ダッシュボード用の集計）
+// (更新はReportMonthlyStatsRepositoryのSQLで行い、エンティティとしては読み取りのみ)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "report_monthly_stats")
+public class ReportMonthlyStats {
+
+    // 社員番号と月（月初日）
+    @EmbeddedId
+    private Key key;
+
+    // 日報を提出した日のビット（1日がbit0、31日がbit30）
+    @Column(name = "day_bits", nullable = false)
+    private int dayBits;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Column(name = "employee_code", length = 10)
+        private String employeeCode;
+
+        @Column(name = "report_month")
+        private LocalDate reportMonth;
+    }
+}
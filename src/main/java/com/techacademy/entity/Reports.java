@@ -3,9 +3,12 @@ package com.techacademy.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -13,8 +16,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -30,13 +36,22 @@ import lombok.experimental.Accessors;
 @Builder
 @Accessors(chain = true)
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", uniqueConstraints = @UniqueConstraint(name = Reports.UK_ACTIVE_REPORT_DATE, columnNames = {
+        "employee_code", "active_report_date" }))
 @SQLRestriction("delete_flg = false")
+// 2次キャッシュの対象（論理削除済みもキャッシュに残り得るため、取得側で削除フラグを確認する）
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Reports {
 
+    // 1従業員1日1件の一意制約名（削除されていない日報のみが対象）
+    public static final String UK_ACTIVE_REPORT_DATE = "uk_reports_employee_active_date";
+
     // ID
+    // (IDENTITYではINSERTごとに採番結果を受け取る必要がありJDBCバッチが無効になるため、50件ずつ払い出す採番を使う)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reports_seq")
+    @SequenceGenerator(name = "reports_seq", sequenceName = "reports_seq", initialValue = 100, allocationSize = 50)
     private Integer id;
 
     // 氏名
@@ -71,12 +86,22 @@ public class Reports {
     @Column(name = "delete_flg", columnDefinition="TINYINT", nullable = false)
     private boolean deleteFlg;
 
-    // 登録日時
-    @Column(name = "created_at", nullable = false)
+    // 一意制約用の日付（削除されていない場合のみ日付、削除済みはNULLとなるDB側の生成列）
+    @Column(name = "active_report_date", insertable = false, updatable = false,
+            columnDefinition = "DATE GENERATED ALWAYS AS (IF(delete_flg = 0, report_date, NULL)) STORED")
+    private LocalDate activeReportDate;
+
+    // 登録日時（更新時は変更しない）
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     // 更新日時
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // 楽観的ロック用のバージョン（更新画面の表示時点から他の利用者が更新していれば更新しない）
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
 }
\ No newline at end of file
@@ -1,13 +1,57 @@
 package com.techacademy.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.techacademy.dto.EmployeeListRow;
 import com.techacademy.entity.Employee;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
+    // クエリキャッシュの対象（有効時のみ）
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Employee> findAll();
-}
\ No newline at end of file
+
+    // 一覧画面の絞り込み条件（nullの場合は条件なし。氏名は部分一致、社員番号は前方一致）
+    String LIST_CONDITION = " WHERE (:name IS NULL OR e.name LIKE CONCAT('%', :name, '%'))"
+            + " AND (:code IS NULL OR e.code LIKE CONCAT(:code, '%'))"
+            + " AND (:role IS NULL OR e.role = :role)";
+
+    // 一覧に表示する項目だけを1ページ分取得する（日報リストは読み込まない）
+    // 総件数は全件を読み込まず、COUNTクエリ1回で取得する
+    @Query(value = "SELECT e.code AS code, e.name AS name, e.role AS role FROM Employee e" + LIST_CONDITION,
+            countQuery = "SELECT COUNT(e) FROM Employee e" + LIST_CONDITION)
+    Page<EmployeeListRow> findListRows(@Param("name") String name, @Param("code") String code,
+            @Param("role") Employee.Role role, Pageable pageable);
+
+    // 従業員の最終更新日時（条件付きGET用）
+    @Query("SELECT MAX(e.updatedAt) FROM Employee e")
+    Optional<LocalDateTime> findLastModified();
+
+    // 指定従業員の更新日時（条件付きGET用）
+    @Query("SELECT e.updatedAt FROM Employee e WHERE e.code = :code")
+    Optional<LocalDateTime> findUpdatedAtByCode(@Param("code") String code);
+
+    // 画面で変更できる項目のみを、バージョンが一致する場合に1回のUPDATEで更新する（更新件数0は同時更新）
+    // (パスワードがnullの場合は既存のパスワードのまま)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.name = :name, e.role = :role, e.password = COALESCE(:password, e.password),"
+            + " e.updatedAt = :updatedAt, e.version = e.version + 1"
+            + " WHERE e.code = :code AND e.version = :version AND e.deleteFlg = false")
+    int updateIfVersionMatches(@Param("code") String code, @Param("version") Integer version,
+            @Param("name") String name, @Param("role") Employee.Role role, @Param("password") String password,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
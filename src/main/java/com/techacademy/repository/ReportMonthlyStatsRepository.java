@@ -0,0 +1,95 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.techacademy.dto.ReportMonthlyStatsRow;
+import com.techacademy.entity.ReportMonthlyStats;
+
+import jakarta.persistence.QueryHint;
+
+// 日報の提出状況の集計（ビット演算・UPSERTを使うためMySQLのSQLで更新する）
+@Repository
+public interface ReportMonthlyStatsRepository extends JpaRepository<ReportMonthlyStats, ReportMonthlyStats.Key> {
+
+    // 更新するSQLが変更するテーブル（指定しないと、Hibernateは全エンティティの2次キャッシュとクエリキャッシュを破棄する）
+    String STATS_TABLE = "report_monthly_stats";
+
+    // 指定した日のビットを立てる（その月の行がなければ作成する）
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_TABLE))
+    @Query(value = "INSERT INTO report_monthly_stats (employee_code, report_month, day_bits)"
+            + " VALUES (:employeeCode, :reportMonth, :dayBits) AS new"
+            + " ON DUPLICATE KEY UPDATE day_bits = report_monthly_stats.day_bits | new.day_bits", nativeQuery = true)
+    int addDays(@Param("employeeCode") String employeeCode, @Param("reportMonth") LocalDate reportMonth,
+            @Param("dayBits") int dayBits);
+
+    // 指定した日のビットを落とす
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_TABLE))
+    @Query(value = "UPDATE report_monthly_stats SET day_bits = day_bits & ~:dayBits"
+            + " WHERE employee_code = :employeeCode AND report_month = :reportMonth", nativeQuery = true)
+    int removeDays(@Param("employeeCode") String employeeCode, @Param("reportMonth") LocalDate reportMonth,
+            @Param("dayBits") int dayBits);
+
+    // 指定従業員の集計をまとめて削除（従業員削除時）
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_TABLE))
+    @Query(value = "DELETE FROM report_monthly_stats WHERE employee_code = :employeeCode", nativeQuery = true)
+    int deleteByEmployeeCode(@Param("employeeCode") String employeeCode);
+
+    /* 集計の作り直し（日報テーブルとのずれの解消用。従業員をいくつかずつに分けて作り直す）：ここから */
+
+    // 集計を作り直す対象の社員番号（論理削除済みの従業員も含む。社員番号の順）
+    @Query(value = "SELECT code FROM employees ORDER BY code", nativeQuery = true)
+    List<String> findAllEmployeeCodes();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_TABLE))
+    @Query(value = "DELETE FROM report_monthly_stats WHERE employee_code IN (:employeeCodes)", nativeQuery = true)
+    int deleteByEmployeeCodes(@Param("employeeCodes") List<String> employeeCodes);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = STATS_TABLE))
+    @Query(value = "INSERT INTO report_monthly_stats (employee_code, report_month, day_bits)"
+            + " SELECT employee_code, DATE_FORMAT(report_date, '%Y-%m-01'), BIT_OR(1 << (DAY(report_date) - 1))"
+            + " FROM reports WHERE employee_code IN (:employeeCodes) AND delete_flg = 0"
+            + " GROUP BY employee_code, DATE_FORMAT(report_date, '%Y-%m-01')", nativeQuery = true)
+    int insertFromReportsByEmployeeCodes(@Param("employeeCodes") List<String> employeeCodes);
+
+    /* 集計の作り直し：ここまで */
+
+    // 削除されていない全従業員と、指定した月の範囲の集計を外部結合して取得（社員番号・月の順）
+    // (期間内に日報のない従業員も件数0として表示するため、従業員から結合する。集計がなければ月・ビットはnull)
+    @Query(value = "SELECT e.code AS employeeCode, e.name AS employeeName, s.report_month AS reportMonth,"
+            + " s.day_bits AS dayBits FROM employees e"
+            + " LEFT JOIN report_monthly_stats s ON s.employee_code = e.code AND s.report_month BETWEEN :from AND :to"
+            + " WHERE e.delete_flg = 0 ORDER BY e.code, s.report_month", nativeQuery = true)
+    List<ReportMonthlyStatsRow> findRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 削除されていない従業員のうち、指定した社員番号より後のlimit人と、指定した月の範囲の集計を外部結合して取得
+    // (社員番号・月の順。集計がなければ月・ビットはnull。未提出者の判定用に、1ページ分の従業員の月数分の行のみを読む)
+    @Query(value = "SELECT e.code AS employeeCode, e.name AS employeeName, e.created_at AS employeeCreatedAt,"
+            + " s.report_month AS reportMonth, s.day_bits AS dayBits"
+            + " FROM (SELECT code, name, created_at FROM employees WHERE delete_flg = 0 AND code > :afterCode"
+            + " ORDER BY code LIMIT :limit) e"
+            + " LEFT JOIN report_monthly_stats s ON s.employee_code = e.code AND s.report_month BETWEEN :from AND :to"
+            + " ORDER BY e.code, s.report_month", nativeQuery = true)
+    List<EmployeeMonthlyStatsRow> findEmployeeRows(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("afterCode") String afterCode, @Param("limit") int limit);
+
+    // 従業員と集計の外部結合の1行分
+    interface EmployeeMonthlyStatsRow extends ReportMonthlyStatsRow {
+        // 従業員の登録日時（登録前の日は未提出としない）
+        LocalDateTime getEmployeeCreatedAt();
+    }
+}
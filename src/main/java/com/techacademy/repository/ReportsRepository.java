@@ -1,26 +1,192 @@
 package com.techacademy.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.techacademy.dto.ReportsCalendarEntry;
+import com.techacademy.dto.ReportsExportRow;
+import com.techacademy.dto.ReportsListRow;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Reports;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ReportsRepository extends JpaRepository<Reports, Integer> {
-    // 全件のうち削除されていない日報を取得（管理者用）
-    List<Reports> findByDeleteFlgFalse();
-    // 指定従業員で、削除されていない日報を取得
-    List<Reports> findByEmployeeAndDeleteFlgFalse(Employee employee);
-    List<Reports> findByEmployee(Employee employee);
-    // 指定した従業員と日付で削除されていない日報が存在するか
-    Optional<Reports> findByEmployeeAndReportDateAndDeleteFlgFalse(Employee employee, LocalDate reportDate);
-    // 重複チェック（新規登録）
+    // 指定した従業員と日付の日報を取得
     List<Reports> findByEmployeeAndReportDate(Employee employee, LocalDate reportDate);
-    // 重複チェック（更新）
-    List<Reports> findByEmployee_CodeAndReportDateAndDeleteFlgFalse(String employeeCode, LocalDate reportDate);
-}
\ No newline at end of file
+
+    /* 一覧画面（(日付, ID)の降順でシークする。OFFSETは使わない）：ここから */
+
+    // 一覧に表示する項目だけを、従業員の氏名と結合して1回のSQLで取得する
+    String LIST_ROW_SELECT = "SELECT r.id AS id, r.reportDate AS reportDate, r.title AS title, e.name AS employeeName"
+            + " FROM Reports r JOIN r.employee e WHERE r.deleteFlg = false";
+    String OLDER_THAN = " AND (r.reportDate < :reportDate OR (r.reportDate = :reportDate AND r.id < :id))";
+    String NEWER_THAN = " AND (r.reportDate > :reportDate OR (r.reportDate = :reportDate AND r.id > :id))";
+    String ORDER_DESC = " ORDER BY r.reportDate DESC, r.id DESC";
+    String ORDER_ASC = " ORDER BY r.reportDate ASC, r.id ASC";
+
+    // 先頭ページ（管理者用、クエリキャッシュの対象）
+    @Query(LIST_ROW_SELECT + ORDER_DESC)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ReportsListRow> findFirstPage(Limit limit);
+
+    // 先頭ページ（一般ユーザー用、クエリキャッシュの対象）
+    @Query(LIST_ROW_SELECT + " AND r.employee = :employee" + ORDER_DESC)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<ReportsListRow> findFirstPageByEmployee(@Param("employee") Employee employee, Limit limit);
+
+    // カーソルより古い日報（管理者用）
+    @Query(LIST_ROW_SELECT + OLDER_THAN + ORDER_DESC)
+    List<ReportsListRow> findOlderThan(@Param("reportDate") LocalDate reportDate, @Param("id") Integer id, Limit limit);
+
+    // カーソルより古い日報（一般ユーザー用）
+    @Query(LIST_ROW_SELECT + " AND r.employee = :employee" + OLDER_THAN + ORDER_DESC)
+    List<ReportsListRow> findOlderThanByEmployee(@Param("employee") Employee employee,
+            @Param("reportDate") LocalDate reportDate, @Param("id") Integer id, Limit limit);
+
+    // カーソルより新しい日報（管理者用、昇順で取得する）
+    @Query(LIST_ROW_SELECT + NEWER_THAN + ORDER_ASC)
+    List<ReportsListRow> findNewerThan(@Param("reportDate") LocalDate reportDate, @Param("id") Integer id, Limit limit);
+
+    // カーソルより新しい日報（一般ユーザー用、昇順で取得する）
+    @Query(LIST_ROW_SELECT + " AND r.employee = :employee" + NEWER_THAN + ORDER_ASC)
+    List<ReportsListRow> findNewerThanByEmployee(@Param("employee") Employee employee,
+            @Param("reportDate") LocalDate reportDate, @Param("id") Integer id, Limit limit);
+
+    // 件数（ページングとは別に取得し、キャッシュする）
+    long countByDeleteFlgFalse();
+    long countByEmployeeAndDeleteFlgFalse(Employee employee);
+
+    /* 一覧画面：ここまで */
+
+    /* キーワード検索（タイトル・内容のFULLTEXTインデックス（ngram）を使う）：ここから */
+
+    // employeeCodeがnullの場合は全従業員、cursorDate・cursorIdがnullの場合は先頭から
+    String SEARCH_SELECT = "SELECT r.id AS id, r.report_date AS reportDate, r.title AS title, e.name AS employeeName"
+            + " FROM reports r JOIN employees e ON e.code = r.employee_code"
+            + " WHERE MATCH(r.title, r.content) AGAINST(:keyword IN BOOLEAN MODE) AND r.delete_flg = 0"
+            + " AND (:employeeCode IS NULL OR r.employee_code = :employeeCode)";
+
+    // カーソルより古い日報（先頭ページを含む）
+    @Query(value = SEARCH_SELECT
+            + " AND (:cursorDate IS NULL OR r.report_date < :cursorDate OR (r.report_date = :cursorDate AND r.id < :cursorId))"
+            + " ORDER BY r.report_date DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<ReportsListRow> searchOlderThan(@Param("keyword") String keyword, @Param("employeeCode") String employeeCode,
+            @Param("cursorDate") LocalDate cursorDate, @Param("cursorId") Integer cursorId, @Param("limit") int limit);
+
+    // カーソルより新しい日報（昇順で取得する）
+    @Query(value = SEARCH_SELECT
+            + " AND (r.report_date > :cursorDate OR (r.report_date = :cursorDate AND r.id > :cursorId))"
+            + " ORDER BY r.report_date ASC, r.id ASC LIMIT :limit", nativeQuery = true)
+    List<ReportsListRow> searchNewerThan(@Param("keyword") String keyword, @Param("employeeCode") String employeeCode,
+            @Param("cursorDate") LocalDate cursorDate, @Param("cursorId") Integer cursorId, @Param("limit") int limit);
+
+    /* キーワード検索：ここまで */
+
+    /* CSV出力（全件をメモリに載せず1行ずつ読み進める）：ここから */
+
+    // MySQLで結果を1行ずつ受け取るためのフェッチサイズ（前方向のみ・読み取り専用のカーソル）
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    String EXPORT_ROW_SELECT = "SELECT r.id AS id, e.code AS employeeCode, e.name AS employeeName,"
+            + " r.reportDate AS reportDate, r.title AS title, r.content AS content,"
+            + " r.createdAt AS createdAt, r.updatedAt AS updatedAt"
+            + " FROM Reports r JOIN r.employee e WHERE r.deleteFlg = false"
+            + " AND (:from IS NULL OR r.reportDate >= :from) AND (:to IS NULL OR r.reportDate <= :to)";
+
+    // 指定期間の日報（管理者用、期間がnullの場合は制限なし）
+    @Query(EXPORT_ROW_SELECT + " ORDER BY r.reportDate, r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<ReportsExportRow> streamExportRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 指定期間の日報（一般ユーザー用、期間がnullの場合は制限なし）
+    @Query(EXPORT_ROW_SELECT + " AND r.employee = :employee ORDER BY r.reportDate, r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<ReportsExportRow> streamExportRowsByEmployee(@Param("employee") Employee employee,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /* CSV出力：ここまで */
+
+    /* 条件付きGET用の更新日時（エンティティを読み込まずに取得する）：ここから */
+
+    // 日報の最終更新日時（管理者用。条件付きGET用）
+    // (論理削除も更新日時を更新するため、削除済みの日報も含める。削除フラグごとに索引からMAXを求めて大きい方を返す)
+    @Query(value = "SELECT MAX(t.updated_at) FROM ("
+            + "SELECT MAX(updated_at) AS updated_at FROM reports WHERE delete_flg = 0"
+            + " UNION ALL SELECT MAX(updated_at) FROM reports WHERE delete_flg = 1) t", nativeQuery = true)
+    Optional<LocalDateTime> findLastModified();
+
+    // 日報の最終更新日時（一般ユーザー用。削除済みの日報も含める）
+    @Query(value = "SELECT MAX(t.updated_at) FROM ("
+            + "SELECT MAX(updated_at) AS updated_at FROM reports WHERE employee_code = :employeeCode AND delete_flg = 0"
+            + " UNION ALL SELECT MAX(updated_at) FROM reports WHERE employee_code = :employeeCode AND delete_flg = 1) t",
+            nativeQuery = true)
+    Optional<LocalDateTime> findLastModifiedByEmployee(@Param("employeeCode") String employeeCode);
+
+    // 指定従業員の、指定期間の日報（カレンダー表示用。日付の順）
+    // (削除フラグではなく生成列active_report_dateで絞り込み、(社員番号, 有効な日付, タイトル)の索引だけで完結させる)
+    @Query(value = "SELECT r.id AS id, r.active_report_date AS reportDate, r.title AS title FROM reports r"
+            + " WHERE r.employee_code = :employeeCode AND r.active_report_date BETWEEN :from AND :to"
+            + " ORDER BY r.active_report_date", nativeQuery = true)
+    List<ReportsCalendarEntry> findCalendarEntries(@Param("employeeCode") String employeeCode,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 日報と、表示する従業員のどちらか新しい更新日時
+    @Query("SELECT CASE WHEN r.updatedAt > e.updatedAt THEN r.updatedAt ELSE e.updatedAt END"
+            + " FROM Reports r JOIN r.employee e WHERE r.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Integer id);
+
+    /* 条件付きGET用の更新日時：ここまで */
+
+    /* 一括取込み：ここから */
+
+    // 社員番号と日付の組
+    interface EmployeeDateKey {
+        String getEmployeeCode();
+
+        LocalDate getReportDate();
+    }
+
+    // 指定した従業員・期間で登録済みの(社員番号, 日付)をまとめて取得（取込み時の重複チェック用）
+    @Query("SELECT r.employee.code AS employeeCode, r.reportDate AS reportDate FROM Reports r"
+            + " WHERE r.deleteFlg = false AND r.employee.code IN :employeeCodes AND r.reportDate BETWEEN :from AND :to")
+    List<EmployeeDateKey> findActiveDateKeys(@Param("employeeCodes") Collection<String> employeeCodes,
+            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /* 一括取込み：ここまで */
+
+    // 指定した日報の(社員番号, 日付)（更新時に提出状況の集計を移すため、更新前の値を取得する）
+    @Query("SELECT r.employee.code AS employeeCode, r.reportDate AS reportDate FROM Reports r WHERE r.id = :id")
+    Optional<EmployeeDateKey> findDateKeyById(@Param("id") Integer id);
+
+    // 指定従業員の日報をまとめて論理削除（従業員削除時に1回のUPDATEで行う）
+    // 実行前に未反映の変更をフラッシュし、実行後は永続化コンテキストをクリアして古いエンティティが残らないようにする
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reports r SET r.deleteFlg = true, r.updatedAt = :updatedAt, r.version = r.version + 1"
+            + " WHERE r.employee.code = :employeeCode AND r.deleteFlg = false")
+    int softDeleteByEmployeeCode(@Param("employeeCode") String employeeCode, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 画面で変更できる項目のみを、バージョンが一致する場合に1回のUPDATEで更新する（更新件数0は同時更新または削除済み）
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reports r SET r.reportDate = :reportDate, r.title = :title, r.content = :content, r.name = :name,"
+            + " r.employee = :employee, r.updatedAt = :updatedAt, r.version = r.version + 1"
+            + " WHERE r.id = :id AND r.version = :version AND r.deleteFlg = false")
+    int updateIfVersionMatches(@Param("id") Integer id, @Param("version") Integer version,
+            @Param("reportDate") LocalDate reportDate, @Param("title") String title, @Param("content") String content,
+            @Param("name") String name, @Param("employee") Employee employee,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -6,18 +6,30 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.constants.ErrorKinds;
+import com.techacademy.dto.EmployeeListRow;
 import com.techacademy.entity.Employee;
-import com.techacademy.entity.Reports;
 import com.techacademy.repository.EmployeeRepository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class EmployeeService {
 
+    // 一覧画面で並べ替えできる項目
+    private static final List<String> SORTABLE_PROPERTIES = List.of("code", "name", "role");
+
+    // パスワードの半角英数字チェック用（登録・更新のたびにコンパイルしないよう1度だけ作成する）
+    private static final Pattern HALF_SIZE_PATTERN = Pattern.compile("^[A-Za-z0-9]+$");
+
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final ReportsService reportService;
@@ -55,6 +67,7 @@ public class EmployeeService {
 
     // 従業員削除
     @Transactional
+    @CacheEvict(value = "loginEmployee", key = "#code")
     public ErrorKinds delete(String code, UserDetail userDetail) {
 
         // 自分を削除しようとした場合はエラーメッセージを表示
@@ -68,13 +81,8 @@ public class EmployeeService {
 
         /* 削除対象の従業員に紐づいている日報情報の削除：ここから */
 
-        // 削除対象の従業員（employee）に紐づいている、日報のリスト（reportList）を取得
-        List<Reports> reportList = reportService.findByEmployee(employee);
-        // 日報のリスト（reportList）を拡張for文を使って繰り返し
-        for (Reports report : reportList) {
-            // 日報（report）のIDを指定して、日報情報を削除
-            reportService.delete(report.getId());
-        }
+        // 削除対象の従業員（employee）に紐づいている日報を、件数によらず1回のUPDATEで論理削除
+        reportService.deleteByEmployee(employee);
 
         /* 削除対象の従業員に紐づいている日報情報の削除：ここまで */
 
@@ -82,19 +90,53 @@ public class EmployeeService {
     }
 
     // 従業員一覧表示処理
+    @Transactional(readOnly = true)
     public List<Employee> findAll() {
         return employeeRepository.findAll();
     }
 
+    // 従業員一覧の1ページ分を取得（氏名・社員番号・権限で絞り込み、空欄の条件は無視する）
+    @Transactional(readOnly = true)
+    public Page<EmployeeListRow> findListPage(String name, String code, Employee.Role role, Pageable pageable) {
+        // 並べ替えは一覧の表示項目のみ許可し、指定がなければ社員番号順とする
+        Sort sort = Sort.by(pageable.getSort().stream().filter(o -> SORTABLE_PROPERTIES.contains(o.getProperty())).toList());
+        if (sort.isUnsorted()) {
+            sort = Sort.by("code");
+        }
+        return employeeRepository.findListRows(blankToNull(name), blankToNull(code), role,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort));
+    }
+
+    // 従業員の最終更新日時と件数（一覧画面の条件付きGET用）
+    // (論理削除された従業員は含まれないため、件数と組み合わせて変更を判定する)
+    @Transactional(readOnly = true)
+    public LocalDateTime findLastModified() {
+        return employeeRepository.findLastModified().orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public long count() {
+        return employeeRepository.count();
+    }
+
+    // 指定従業員の更新日時（詳細画面の条件付きGET用）
+    @Transactional(readOnly = true)
+    public LocalDateTime findUpdatedAtByCode(String code) {
+        return employeeRepository.findUpdatedAtByCode(code).orElse(null);
+    }
+
+    // 空欄の絞り込み条件はnullとして扱う
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     // 従業員更新
     @Transactional
+    @CacheEvict(value = "loginEmployee", key = "#employee.code")
     public ErrorKinds update(Employee employee) {
-        // DBから既存データを取得
-        Employee dbEmployee = findByCode(employee.getCode());
-
-        // パスワード空文字なら既存のパスワードを使う
+        // パスワード空文字なら既存のパスワードを使う（UPDATEでパスワードを変更しない）
         if (employee.getPassword() == null || employee.getPassword().isEmpty()) {
-            employee.setPassword(dbEmployee.getPassword());
+            employee.setPassword(null);
         } else {
             // パスワードチェック（空白でないときのみ）
             ErrorKinds result = employeePasswordCheck(employee);
@@ -103,23 +145,38 @@ public class EmployeeService {
             }
         }
 
-        employee.setCreatedAt(dbEmployee.getCreatedAt()); // 元の作成日を保持
-        employee.setUpdatedAt(LocalDateTime.now());
-        employee.setDeleteFlg(false);
+        // 既存データを取得せず、画面で変更できる項目のみを1回のUPDATEで更新する（登録日時は変更しない）
+        LocalDateTime now = LocalDateTime.now();
+        int updated = employeeRepository.updateIfVersionMatches(employee.getCode(), employee.getVersion(),
+                employee.getName(), employee.getRole(), employee.getPassword(), now);
 
-        employeeRepository.save(employee);
+        // 画面の表示後に他の利用者が更新・削除していた場合はエラーメッセージを表示
+        if (updated == 0) {
+            return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+        employee.setUpdatedAt(now);
         return ErrorKinds.SUCCESS;
     }
 
     // 1件を検索
+    @Transactional(readOnly = true)
     public Employee findByCode(String code) {
         // findByIdで検索
         Optional<Employee> option = employeeRepository.findById(code);
         // 取得できなかった場合はnullを返す
-        Employee employee = option.orElse(null);
+        // (2次キャッシュからは論理削除済みの従業員も返り得るため、削除フラグも確認する)
+        Employee employee = option.filter(e -> !e.isDeleteFlg()).orElse(null);
         return employee;
     }
 
+    // ログイン中の従業員を検索（短時間キャッシュし、従業員の更新・削除時に破棄する）
+    // (キャッシュは要求をまたいで共有するため、レプリカの反映遅延で古い従業員を載せないよう読み取りもプライマリで行う)
+    @Transactional
+    @Cacheable(value = "loginEmployee", key = "#code", unless = "#result == null")
+    public Employee findLoginEmployee(String code) {
+        return findByCode(code);
+    }
+
     // 従業員パスワードチェック
     private ErrorKinds employeePasswordCheck(Employee employee) {
 
@@ -144,8 +201,7 @@ public class EmployeeService {
     private boolean isHalfSizeCheckError(Employee employee) {
 
         // 半角英数字チェック
-        Pattern pattern = Pattern.compile("^[A-Za-z0-9]+$");
-        Matcher matcher = pattern.matcher(employee.getPassword());
+        Matcher matcher = HALF_SIZE_PATTERN.matcher(employee.getPassword());
         return !matcher.matches();
     }
 
@@ -0,0 +1,39 @@
+package com.techacademy.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.techacademy.entity.Employee;
+
+// ログイン中の従業員の取得
+// (同一リクエスト内はリクエスト属性、リクエストをまたぐ場合はEmployeeServiceの短時間キャッシュを使う)
+@Service
+public class LoginEmployeeResolver {
+
+    private static final String ATTRIBUTE_NAME = LoginEmployeeResolver.class.getName() + ".EMPLOYEE";
+
+    private final EmployeeService employeeService;
+
+    public LoginEmployeeResolver(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    // 従業員番号からログイン中の従業員を取得
+    public Employee resolve(String code) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        // 同一リクエスト内で取得済みならそれを返す
+        if (attributes != null
+                && attributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST) instanceof Employee cached
+                && code.equals(cached.getCode())) {
+            return cached;
+        }
+
+        Employee employee = employeeService.findLoginEmployee(code);
+        if (attributes != null && employee != null) {
+            attributes.setAttribute(ATTRIBUTE_NAME, employee, RequestAttributes.SCOPE_REQUEST);
+        }
+        return employee;
+    }
+}
@@ -0,0 +1,355 @@
+package com.techacademy.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
+import com.techacademy.dto.ReportsExportRow;
+import com.techacademy.dto.ReportsImportResult;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Reports;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportsRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// 日報のCSV入出力
+@Service
+public class ReportsCsvService {
+
+    // CSVの見出し行
+    private static final String[] EXPORT_HEADER = { "ID", "社員番号", "氏名", "日付", "タイトル", "内容", "登録日時", "更新日時" };
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 表計算ソフトで数式として解釈される先頭の文字（出力時は先頭にFORMULA_PREFIXを付ける）
+    private static final String FORMULA_CHARS = "=+-@\t\r";
+    private static final char FORMULA_PREFIX = '\'';
+
+    // 取込みで必須の見出し（出力したCSVもそのまま取り込める）
+    private static final String CODE_COLUMN = "社員番号";
+    private static final String DATE_COLUMN = "日付";
+    private static final String TITLE_COLUMN = "タイトル";
+    private static final String CONTENT_COLUMN = "内容";
+
+    // 入力チェックエラー時に表示する項目名
+    private static final Map<String, String> PROPERTY_LABELS = Map.of("reportDate", DATE_COLUMN, "title", TITLE_COLUMN,
+            "content", CONTENT_COLUMN);
+
+    // 1トランザクションで登録する件数（JDBCバッチサイズの倍数）
+    private static final int CHUNK_SIZE = 500;
+
+    private final ReportsRepository reportsRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ReportsStatsService reportsStatsService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    // 一括取込みで登録した日報の件数（画面からの登録・更新と同じメトリクスに集計する）
+    private final Counter importedCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ReportsCsvService(ReportsRepository reportsRepository, EmployeeRepository employeeRepository,
+            ReportsStatsService reportsStatsService, Validator validator, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.reportsRepository = reportsRepository;
+        this.employeeRepository = employeeRepository;
+        this.reportsStatsService = reportsStatsService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.importedCounter = Counter.builder("reports.saved").tag("operation", "import")
+                .description("日報の登録・更新件数").register(meterRegistry);
+    }
+
+    // ログインユーザーの権限に応じた日報をCSVで出力する（monthがnullの場合は全期間）
+    // 1行ずつ読み進めて書き出すため、件数によらずメモリ使用量は一定となる
+    // 読み取り専用トランザクションで実行し、登録・更新をブロックしない
+    @Transactional(readOnly = true)
+    public void exportCsv(UserDetail userDetail, YearMonth month, OutputStream outputStream) throws IOException {
+        LocalDate from = month == null ? null : month.atDay(1);
+        LocalDate to = month == null ? null : month.atEndOfMonth();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        // Excelで文字化けしないようにBOMを付ける
+        writer.write('\uFEFF');
+        writeLine(writer, (Object[]) EXPORT_HEADER);
+
+        try (Stream<ReportsExportRow> rows = userDetail.getEmployee().getRole().toString().equals("ADMIN")
+                ? reportsRepository.streamExportRows(from, to)
+                : reportsRepository.streamExportRowsByEmployee(userDetail.getEmployee(), from, to)) {
+            Iterator<ReportsExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ReportsExportRow row = iterator.next();
+                writeLine(writer, row.getId(), row.getEmployeeCode(), row.getEmployeeName(), row.getReportDate(),
+                        row.getTitle(), row.getContent(), DATE_TIME_FORMAT.format(row.getCreatedAt()),
+                        DATE_TIME_FORMAT.format(row.getUpdatedAt()));
+            }
+        }
+        writer.flush();
+    }
+
+    // 日報をCSVから一括で取り込む
+    // ファイルは先頭から順に読み、CHUNK_SIZE件ごとに社員番号の解決・重複チェック・バッチINSERTを行ってコミットする
+    // エラーの行は登録せず、行番号とエラー内容を結果に含める
+    @CacheEvict(value = "reportsCount", allEntries = true)
+    public ReportsImportResult importCsv(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        ReportsImportResult result = new ReportsImportResult();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        // 見出し行から各項目の位置を取得する
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            return result;
+        }
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (String column : List.of(CODE_COLUMN, DATE_COLUMN, TITLE_COLUMN, CONTENT_COLUMN)) {
+            int index = header.indexOf(column);
+            if (index < 0) {
+                result.addError(1, "見出し行に「" + column + "」がありません");
+                return result;
+            }
+            columns.put(column, index);
+        }
+
+        // ファイル内での(社員番号, 日付)の重複チェック用
+        Set<String> importedKeys = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long rowNo = 1;
+        List<String> record;
+        while ((record = readRecord(reader)) != null) {
+            rowNo++;
+            // 空行は読み飛ばす
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            result.countRow();
+            chunk.add(new ImportRow(rowNo, record));
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, columns, importedKeys, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, columns, importedKeys, result);
+        }
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    // 取込み対象の1行
+    private record ImportRow(long rowNo, List<String> values) {
+
+        // 出力時に数式対策で付けた先頭の「'」は取り除く
+        String value(Map<String, Integer> columns, String column) {
+            int index = columns.get(column);
+            String value = index < values.size() ? values.get(index) : "";
+            if (value.length() > 1 && value.charAt(0) == FORMULA_PREFIX
+                    && FORMULA_CHARS.indexOf(value.charAt(1)) >= 0) {
+                value = value.substring(1);
+            }
+            return value.trim();
+        }
+    }
+
+    // CHUNK_SIZE件分を1トランザクションで登録する
+    private void importChunk(List<ImportRow> rows, Map<String, Integer> columns, Set<String> importedKeys,
+            ReportsImportResult result) {
+        // この範囲で登録する(社員番号, 日付)（コミットできた場合のみファイル内の重複チェックに加える）
+        Set<String> chunkKeys = new HashSet<>();
+        try {
+            Integer imported = transactionTemplate.execute(status -> {
+                // 社員番号はまとめて検索する
+                Set<String> codes = new HashSet<>();
+                for (ImportRow row : rows) {
+                    codes.add(row.value(columns, CODE_COLUMN));
+                }
+                Map<String, Employee> employees = new HashMap<>();
+                for (Employee employee : employeeRepository.findAllById(codes)) {
+                    employees.put(employee.getCode(), employee);
+                }
+
+                // 入力チェック
+                Map<ImportRow, Reports> candidates = new LinkedHashMap<>();
+                LocalDate minDate = null;
+                LocalDate maxDate = null;
+                for (ImportRow row : rows) {
+                    Employee employee = employees.get(row.value(columns, CODE_COLUMN));
+                    if (employee == null) {
+                        result.addError(row.rowNo(), "社員番号が存在しません");
+                        continue;
+                    }
+                    LocalDate reportDate;
+                    try {
+                        reportDate = LocalDate.parse(row.value(columns, DATE_COLUMN));
+                    } catch (DateTimeParseException e) {
+                        result.addError(row.rowNo(), DATE_COLUMN + "：yyyy-MM-dd形式で入力してください");
+                        continue;
+                    }
+
+                    LocalDateTime now = LocalDateTime.now();
+                    Reports report = Reports.builder().reportDate(reportDate).title(row.value(columns, TITLE_COLUMN))
+                            .content(row.value(columns, CONTENT_COLUMN)).employee(employee).name(employee.getName())
+                            .deleteFlg(false).createdAt(now).updatedAt(now).build();
+                    Set<ConstraintViolation<Reports>> violations = validator.validate(report);
+                    if (!violations.isEmpty()) {
+                        for (ConstraintViolation<Reports> violation : violations) {
+                            String property = violation.getPropertyPath().toString();
+                            result.addError(row.rowNo(),
+                                    PROPERTY_LABELS.getOrDefault(property, property) + "：" + violation.getMessage());
+                        }
+                        continue;
+                    }
+
+                    candidates.put(row, report);
+                    minDate = minDate == null || reportDate.isBefore(minDate) ? reportDate : minDate;
+                    maxDate = maxDate == null || reportDate.isAfter(maxDate) ? reportDate : maxDate;
+                }
+                if (candidates.isEmpty()) {
+                    return 0;
+                }
+
+                // 登録済みの日報との重複はまとめて検索する
+                Set<String> existingKeys = new HashSet<>();
+                for (ReportsRepository.EmployeeDateKey key : reportsRepository.findActiveDateKeys(employees.keySet(),
+                        minDate, maxDate)) {
+                    existingKeys.add(key.getEmployeeCode() + ":" + key.getReportDate());
+                }
+
+                // JDBCバッチでINSERTする
+                List<Reports> persisted = new ArrayList<>();
+                for (Map.Entry<ImportRow, Reports> candidate : candidates.entrySet()) {
+                    Reports report = candidate.getValue();
+                    String key = report.getEmployee().getCode() + ":" + report.getReportDate();
+                    if (existingKeys.contains(key) || importedKeys.contains(key) || !chunkKeys.add(key)) {
+                        result.addError(candidate.getKey().rowNo(),
+                                ErrorMessage.getErrorValue(ErrorKinds.DATECHECK_ERROR));
+                        continue;
+                    }
+                    entityManager.persist(report);
+                    persisted.add(report);
+                }
+                entityManager.flush();
+                // 提出状況の集計に同じトランザクションで加える
+                reportsStatsService.addAll(persisted);
+                entityManager.clear();
+                return persisted.size();
+            });
+            result.addImported(imported == null ? 0 : imported);
+            importedCounter.increment(imported == null ? 0 : imported);
+            importedKeys.addAll(chunkKeys);
+        } catch (DataAccessException | PersistenceException e) {
+            // 同時に画面から登録された場合など、まとめて登録できなかったときはこの範囲の行をエラーとする
+            // (EntityManagerを直接フラッシュした場合の一意制約違反等は、Springの例外に変換されずPersistenceExceptionとなる)
+            for (ImportRow row : rows) {
+                result.addError(row.rowNo(), "登録に失敗しました");
+            }
+        }
+    }
+
+    // CSVの1レコードを読み込む（ダブルクォートで囲まれた値の中のカンマ・改行に対応）
+    // ファイルの終わりに達した場合はnullを返す
+    private List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            // ダブルクォートが閉じていなければ次の行も同じ値の続き
+            if (!quoted || (line = reader.readLine()) == null) {
+                break;
+            }
+            value.append('\n');
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    // 1行分を書き出す
+    private void writeLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i] == null ? "" : values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    // 数式として解釈される文字で始まる値は先頭に「'」を付ける（CSVインジェクション対策）
+    // カンマ・改行・ダブルクォートを含む値はダブルクォートで囲む
+    private String escape(String value) {
+        if (!value.isEmpty() && FORMULA_CHARS.indexOf(value.charAt(0)) >= 0) {
+            value = FORMULA_PREFIX + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,31 +1,62 @@
 package com.techacademy.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.constants.ErrorKinds;
+import com.techacademy.dto.ReportsCalendar;
+import com.techacademy.dto.ReportsListRow;
+import com.techacademy.dto.ReportsPage;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Reports;
+import com.techacademy.repository.EmployeeRepository;
 import com.techacademy.repository.ReportsRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ReportsService {
 
+    // 一覧画面の1ページあたりの件数
+    public static final int PAGE_SIZE = 20;
+
     private final ReportsRepository reportsRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ReportsStatsService reportsStatsService;
+
+    // 日報の登録・更新件数（/actuator/prometheusで確認できる）
+    private final Counter createdCounter;
+    private final Counter updatedCounter;
 
     @Autowired
-    public ReportsService(ReportsRepository reportsRepository) {
+    public ReportsService(ReportsRepository reportsRepository, EmployeeRepository employeeRepository,
+            ReportsStatsService reportsStatsService, MeterRegistry meterRegistry) {
         this.reportsRepository = reportsRepository;
+        this.employeeRepository = employeeRepository;
+        this.reportsStatsService = reportsStatsService;
+        this.createdCounter = Counter.builder("reports.saved").tag("operation", "create")
+                .description("日報の登録・更新件数").register(meterRegistry);
+        this.updatedCounter = Counter.builder("reports.saved").tag("operation", "update")
+                .description("日報の登録・更新件数").register(meterRegistry);
     }
 
     // 日報保存
     @Transactional
+    @CacheEvict(value = "reportsCount", allEntries = true)
     public ErrorKinds save(Reports reports) {
 
         reports.setDeleteFlg(false);
@@ -33,13 +64,18 @@ public class ReportsService {
         LocalDateTime now = LocalDateTime.now();
         reports.setCreatedAt(now);
         reports.setUpdatedAt(now);
+        reports.setEmployee(toReference(reports.getEmployee()));
 
-        reportsRepository.save(reports);
+        // 一意制約違反をこのメソッド内で発生させるため即時にフラッシュする
+        reportsRepository.saveAndFlush(reports);
+        reportsStatsService.add(reports.getEmployee().getCode(), reports.getReportDate());
+        createdCounter.increment();
         return ErrorKinds.SUCCESS;
     }
 
     // 日報削除
     @Transactional
+    @CacheEvict(value = "reportsCount", allEntries = true)
     public ErrorKinds delete(Integer id, UserDetail userDetail) {
         Reports report = findById(id);
 
@@ -51,71 +87,196 @@ public class ReportsService {
         report.setUpdatedAt(LocalDateTime.now());
         report.setDeleteFlg(true);
         reportsRepository.save(report);
+        reportsStatsService.remove(report.getEmployee().getCode(), report.getReportDate());
         return ErrorKinds.SUCCESS;
     }
 
-        /* 削除対象の従業員に紐づいている日報情報の削除：ここから */
-        // 削除対象の従業員（employee）に紐づいている、日報のリスト（reportList）を取得
-    public List<Reports> findByEmployee(Employee employee) {
-        return reportsRepository.findByEmployee(employee);
-    }
-    //  日報（report）のIDを指定して、日報情報を削除
+    /* 削除対象の従業員に紐づいている日報情報の削除：ここから */
+    // 1件ずつ取得・保存せず、1回のUPDATEでまとめて論理削除する
     @Transactional
-    public void delete(Integer id) {
-        Reports report = findById(id);
-        report.setUpdatedAt(LocalDateTime.now());
-        report.setDeleteFlg(true);
-        reportsRepository.save(report);
+    @CacheEvict(value = "reportsCount", allEntries = true)
+    public int deleteByEmployee(Employee employee) {
+        reportsStatsService.deleteByEmployee(employee.getCode());
+        return reportsRepository.softDeleteByEmployeeCode(employee.getCode(), LocalDateTime.now());
+    }
+    /* 削除対象の従業員に紐づいている日報情報の削除：ここまで */
+
+    // ログインユーザーの権限に応じて一覧の1ページ分を取得する
+    // (日付, ID)をカーソルにしてシークするため、OFFSETと違い後ろのページでも読み飛ばしが発生しない
+    @Transactional(readOnly = true)
+    public ReportsPage findPageByUserAuthority(UserDetail userDetail, LocalDate cursorDate, Integer cursorId,
+            ReportsPage.Direction direction) {
+        boolean isAdmin = userDetail.getEmployee().getRole().toString().equals("ADMIN");
+        Employee employee = userDetail.getEmployee();
+        // 1件多く取得して、続きのページがあるかを判定する
+        Limit limit = Limit.of(PAGE_SIZE + 1);
+
+        // カーソル指定なしは先頭ページ
+        if (cursorDate == null || cursorId == null) {
+            List<ReportsListRow> reports = isAdmin ? reportsRepository.findFirstPage(limit)
+                    : reportsRepository.findFirstPageByEmployee(employee, limit);
+            boolean hasNext = reports.size() > PAGE_SIZE;
+            return new ReportsPage(trim(reports), hasNext, false);
+        }
+
+        if (direction == ReportsPage.Direction.PREV) {
+            // 前ページはカーソルより新しい日報を昇順で取得し、表示用に降順へ並べ替える
+            List<ReportsListRow> reports = isAdmin ? reportsRepository.findNewerThan(cursorDate, cursorId, limit)
+                    : reportsRepository.findNewerThanByEmployee(employee, cursorDate, cursorId, limit);
+            boolean hasPrevious = reports.size() > PAGE_SIZE;
+            List<ReportsListRow> content = trim(reports);
+            Collections.reverse(content);
+            return new ReportsPage(content, true, hasPrevious);
+        }
+
+        List<ReportsListRow> reports = isAdmin ? reportsRepository.findOlderThan(cursorDate, cursorId, limit)
+                : reportsRepository.findOlderThanByEmployee(employee, cursorDate, cursorId, limit);
+        boolean hasNext = reports.size() > PAGE_SIZE;
+        return new ReportsPage(trim(reports), hasNext, true);
+    }
+
+    // ログインユーザーの権限に応じて、タイトル・内容にキーワードを含む日報を1ページ分取得する
+    // (空白区切りの語をすべて含むものが対象。一覧と同じく(日付, ID)をカーソルにしてシークする)
+    @Transactional(readOnly = true)
+    public ReportsPage searchPageByUserAuthority(UserDetail userDetail, String keyword, LocalDate cursorDate,
+            Integer cursorId, ReportsPage.Direction direction) {
+        String employeeCode = userDetail.getEmployee().getRole().toString().equals("ADMIN") ? null
+                : userDetail.getEmployee().getCode();
+        String against = toBooleanModeQuery(keyword);
+        boolean hasCursor = cursorDate != null && cursorId != null;
+
+        if (hasCursor && direction == ReportsPage.Direction.PREV) {
+            List<ReportsListRow> reports = reportsRepository.searchNewerThan(against, employeeCode, cursorDate, cursorId,
+                    PAGE_SIZE + 1);
+            boolean hasPrevious = reports.size() > PAGE_SIZE;
+            List<ReportsListRow> content = trim(reports);
+            Collections.reverse(content);
+            return new ReportsPage(content, true, hasPrevious);
+        }
+
+        List<ReportsListRow> reports = reportsRepository.searchOlderThan(against, employeeCode,
+                hasCursor ? cursorDate : null, hasCursor ? cursorId : null, PAGE_SIZE + 1);
+        boolean hasNext = reports.size() > PAGE_SIZE;
+        return new ReportsPage(trim(reports), hasNext, hasCursor);
     }
-        /* 削除対象の従業員に紐づいている日報情報の削除：ここまで */
 
-    // 日報一覧表示処理
-    public List<Reports> findAll() {
-        return reportsRepository.findAll();
+    // 検索キーワードをFULLTEXT検索（BOOLEAN MODE）の条件に変換する
+    // (各語をフレーズとして必須にする。ngramの最小単位（既定2文字）未満の語では一致しない)
+    private String toBooleanModeQuery(String keyword) {
+        StringBuilder query = new StringBuilder();
+        for (String term : keyword.replace("\"", " ").trim().split("[\\s　]+")) {
+            if (!term.isEmpty()) {
+                query.append("+\"").append(term).append("\" ");
+            }
+        }
+        return query.toString().trim();
     }
-    // ログインユーザーの権限に応じて切り替えるメソッド
-    public List<Reports> findByUserAuthority(UserDetail userDetail) {
+
+    // 一覧画面の最終更新日時（条件付きGET用。日報と、一覧に氏名を表示する従業員の新しい方）
+    // (日報は論理削除済みも含めるため、登録・更新・削除のたびに変わる)
+    @Transactional(readOnly = true)
+    public LocalDateTime findLastModifiedByUserAuthority(UserDetail userDetail) {
+        Optional<LocalDateTime> reports;
+        Optional<LocalDateTime> employees;
         if (userDetail.getEmployee().getRole().toString().equals("ADMIN")) {
-            // 管理者は全件
-            return reportsRepository.findByDeleteFlgFalse();
+            reports = reportsRepository.findLastModified();
+            employees = employeeRepository.findLastModified();
         } else {
-            // 一般ユーザーは自分が登録した日報のみ
-            return reportsRepository.findByEmployeeAndDeleteFlgFalse(userDetail.getEmployee());
+            reports = reportsRepository.findLastModifiedByEmployee(userDetail.getEmployee().getCode());
+            employees = employeeRepository.findUpdatedAtByCode(userDetail.getEmployee().getCode());
+        }
+        if (reports.isEmpty() || employees.isEmpty()) {
+            return reports.or(() -> employees).orElse(null);
         }
+        return reports.get().isAfter(employees.get()) ? reports.get() : employees.get();
+    }
+
+    // 詳細画面の更新日時（条件付きGET用。日報と従業員の新しい方）
+    @Transactional(readOnly = true)
+    public LocalDateTime findUpdatedAtById(Integer id) {
+        return reportsRepository.findUpdatedAtById(id).orElse(null);
+    }
+
+    // ログインユーザーの1か月分のカレンダー（その月の日付・ID・タイトルのみを範囲検索で取得する）
+    @Transactional(readOnly = true)
+    public ReportsCalendar findCalendar(UserDetail userDetail, YearMonth month) {
+        return new ReportsCalendar(month, reportsRepository.findCalendarEntries(userDetail.getEmployee().getCode(),
+                month.atDay(1), month.atEndOfMonth()));
+    }
+
+    // カレンダーの変更判定用（条件付きGET用。ログインユーザーの日報の最終更新日時（論理削除済みを含む）と、その月の提出ビット）
+    @Transactional(readOnly = true)
+    public LocalDateTime findCalendarLastModified(UserDetail userDetail) {
+        return reportsRepository.findLastModifiedByEmployee(userDetail.getEmployee().getCode()).orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public int findCalendarDayBits(UserDetail userDetail, YearMonth month) {
+        return reportsStatsService.findDayBits(userDetail.getEmployee().getCode(), month);
+    }
+
+    // ログインユーザーの権限に応じた日報の件数（ページングとは別クエリで取得し、登録・削除まではキャッシュする）
+    // (キャッシュは要求をまたいで共有するため、レプリカの反映遅延で古い件数を載せないよう読み取りもプライマリで行う)
+    @Transactional
+    @Cacheable(value = "reportsCount", key = "#userDetail.employee.role.toString() == 'ADMIN' ? 'ALL' : #userDetail.employee.code")
+    public long countByUserAuthority(UserDetail userDetail) {
+        if (userDetail.getEmployee().getRole().toString().equals("ADMIN")) {
+            return reportsRepository.countByDeleteFlgFalse();
+        } else {
+            return reportsRepository.countByEmployeeAndDeleteFlgFalse(userDetail.getEmployee());
+        }
+    }
+
+    // 判定用に多く取得した1件を取り除く
+    private List<ReportsListRow> trim(List<ReportsListRow> reports) {
+        return new ArrayList<>(reports.subList(0, Math.min(reports.size(), PAGE_SIZE)));
     }
 
     // 日報更新
+    // (既存データを取得せず、画面で変更できる項目のみを1回のUPDATEで更新する。登録日時は変更しない)
     @Transactional
     public ErrorKinds update(Reports reports) {
-        // DBから既存データを取得
-        Reports dbReports = findById(reports.getId());
+        // 提出状況の集計を移すため、更新前の(社員番号, 日付)のみを取得する
+        Optional<ReportsRepository.EmployeeDateKey> before = reportsRepository.findDateKeyById(reports.getId());
 
-        reports.setCreatedAt(dbReports.getCreatedAt()); // 元の作成日を保持
-        reports.setUpdatedAt(LocalDateTime.now());
-        reports.setDeleteFlg(false);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = reportsRepository.updateIfVersionMatches(reports.getId(), reports.getVersion(),
+                reports.getReportDate(), reports.getTitle(), reports.getContent(), reports.getName(),
+                toReference(reports.getEmployee()), now);
 
-        reportsRepository.save(reports);
+        // 画面の表示後に他の利用者が更新・削除していた場合はエラーメッセージを表示
+        if (updated == 0 || before.isEmpty()) {
+            return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+        reportsStatsService.move(before.get().getEmployeeCode(), before.get().getReportDate(),
+                reports.getEmployee().getCode(), reports.getReportDate());
+        reports.setUpdatedAt(now);
+        reports.setVersion(reports.getVersion() + 1);
+        updatedCounter.increment();
         return ErrorKinds.SUCCESS;
     }
 
+    // 日報に紐づける従業員を参照（プロキシ）に置き換える
+    // (キャッシュ済みの従業員をそのまま紐づけると、保存時に従業員のSELECTが発行されるため)
+    private Employee toReference(Employee employee) {
+        return employeeRepository.getReferenceById(employee.getCode());
+    }
+
     // 1件を検索
+    @Transactional(readOnly = true)
     public Reports findById(Integer id) {
         // findByIdで検索
         Optional<Reports> option = reportsRepository.findById(id);
         // 取得できなかった場合はnullを返す
-        Reports reports = option.orElse(null);
+        // (2次キャッシュからは論理削除済みの日報も返り得るため、削除フラグも確認する)
+        Reports reports = option.filter(r -> !r.isDeleteFlg()).orElse(null);
         return reports;
     }
 
-    // 新規登録用の重複チェック
-    public boolean isDuplicateReport(Employee employee, LocalDate reportDate) {
-        Optional<Reports> report = reportsRepository.findByEmployeeAndReportDateAndDeleteFlgFalse(employee, reportDate);
-        return report.isPresent();
-    }
-
-    // 更新用の重複チェック（自分のレコード以外に同じ日付のものがあるか）
-    public boolean isDuplicateReportForUpdate(String employeeCode, LocalDate reportDate, Integer currentReportId) {
-        List<Reports> reports = reportsRepository.findByEmployee_CodeAndReportDateAndDeleteFlgFalse(employeeCode, reportDate);
-        return reports.stream().anyMatch(r -> !r.getId().equals(currentReportId));
+    // 同一日付の日報の登録・更新による一意制約違反かどうか
+    // (事前の重複チェックは行わず、DBの一意制約で同時登録も含めて1件に制限する)
+    public boolean isDuplicateReportDate(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(Reports.UK_ACTIVE_REPORT_DATE);
     }
-}
\ No newline at end of file
+}
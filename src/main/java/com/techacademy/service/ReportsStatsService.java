@@ -0,0 +1,272 @@
+package com.techacademy.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.dto.MissingReports;
+import com.techacademy.dto.ReportMonthlyStatsRow;
+import com.techacademy.dto.ReportMonthlyStatsSummary;
+import com.techacademy.entity.ReportMonthlyStats;
+import com.techacademy.entity.Reports;
+import com.techacademy.repository.ReportMonthlyStatsRepository;
+
+// 従業員ごと・月ごとの日報の提出状況の集計
+// (日報の登録・更新・削除と同じトランザクションで差分だけを更新し、ダッシュボードは集計のみを読む)
+@Service
+public class ReportsStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportsStatsService.class);
+
+    // 集計の作り直しの排他に使うMySQLの名前付きロックと、1つのトランザクションで作り直す従業員数
+    static final String REBUILD_LOCK = "report_monthly_stats_rebuild";
+    private static final int REBUILD_BATCH_SIZE = 100;
+
+    private final ReportMonthlyStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReportsStatsService(ReportMonthlyStatsRepository statsRepository, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate) {
+        this.statsRepository = statsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // 日報の登録を集計に加える
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(String employeeCode, LocalDate reportDate) {
+        statsRepository.addDays(employeeCode, monthOf(reportDate), dayBit(reportDate));
+    }
+
+    // 一括取込みした日報を集計に加える（従業員・月ごとにまとめて更新する）
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addAll(List<Reports> reports) {
+        Map<String, Map<LocalDate, Integer>> bits = new HashMap<>();
+        for (Reports report : reports) {
+            bits.computeIfAbsent(report.getEmployee().getCode(), code -> new HashMap<>())
+                    .merge(monthOf(report.getReportDate()), dayBit(report.getReportDate()), (a, b) -> a | b);
+        }
+        bits.forEach((employeeCode, months) -> months
+                .forEach((month, dayBits) -> statsRepository.addDays(employeeCode, month, dayBits)));
+    }
+
+    // 日報の削除を集計から除く
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(String employeeCode, LocalDate reportDate) {
+        statsRepository.removeDays(employeeCode, monthOf(reportDate), dayBit(reportDate));
+    }
+
+    // 日報の日付・従業員の変更を集計に反映する（変わっていなければ何もしない）
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(String oldEmployeeCode, LocalDate oldReportDate, String employeeCode, LocalDate reportDate) {
+        if (oldEmployeeCode.equals(employeeCode) && oldReportDate.equals(reportDate)) {
+            return;
+        }
+        remove(oldEmployeeCode, oldReportDate);
+        add(employeeCode, reportDate);
+    }
+
+    // 従業員の削除時に、その従業員の集計をまとめて削除する
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteByEmployee(String employeeCode) {
+        statsRepository.deleteByEmployeeCode(employeeCode);
+    }
+
+    // 日報テーブルから集計を作り直す（SQLの直接実行などによるずれの解消用。定期実行は設定した場合のみ）
+    // (複数台で同時に実行しないよう名前付きロックを取り、従業員をいくつかずつ別のトランザクションで作り直す。
+    //  他の台が実行中の場合は何もせず-1を返す)
+    @Scheduled(cron = "${app.reports.stats.rebuild-cron:-}")
+    public int rebuild() {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            // 名前付きロックは取得した接続に結び付くため、作り直しが終わるまでこの接続を保持する
+            JdbcTemplate lock = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Integer.valueOf(1).equals(lock.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, REBUILD_LOCK))) {
+                log.info("Skipped rebuilding report monthly stats: another instance is rebuilding");
+                return -1;
+            }
+            try {
+                long start = System.nanoTime();
+                int rows = 0;
+                List<String> employeeCodes = statsRepository.findAllEmployeeCodes();
+                for (int i = 0; i < employeeCodes.size(); i += REBUILD_BATCH_SIZE) {
+                    List<String> batch = employeeCodes.subList(i, Math.min(i + REBUILD_BATCH_SIZE, employeeCodes.size()));
+                    rows += transactionTemplate.execute(status -> {
+                        statsRepository.deleteByEmployeeCodes(batch);
+                        return statsRepository.insertFromReportsByEmployeeCodes(batch);
+                    });
+                }
+                log.info("Rebuilt report monthly stats: {} rows in {} ms", rows,
+                        (System.nanoTime() - start) / 1_000_000);
+                return rows;
+            } finally {
+                lock.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, REBUILD_LOCK);
+            }
+        });
+    }
+
+    // 指定従業員・月の提出ビット（集計がなければ0）
+    @Transactional(readOnly = true)
+    public int findDayBits(String employeeCode, YearMonth month) {
+        return statsRepository.findById(new ReportMonthlyStats.Key(employeeCode, month.atDay(1)))
+                .map(ReportMonthlyStats::getDayBits).orElse(0);
+    }
+
+    // ダッシュボードの表示内容（指定した期間の月別件数と連続提出日数。日報のない従業員は件数0。集計テーブルのみを読む）
+    @Transactional(readOnly = true)
+    public List<ReportMonthlyStatsSummary> findSummaries(YearMonth from, YearMonth to, LocalDate today) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+
+        // 社員番号ごとに月別のビットをまとめる（社員番号・月の順で取得している）
+        Map<String, String> names = new LinkedHashMap<>();
+        Map<String, Map<YearMonth, Integer>> bits = new HashMap<>();
+        for (ReportMonthlyStatsRow row : statsRepository.findRows(from.atDay(1), to.atDay(1))) {
+            names.put(row.getEmployeeCode(), row.getEmployeeName());
+            Map<YearMonth, Integer> employeeBits = bits.computeIfAbsent(row.getEmployeeCode(), code -> new HashMap<>());
+            if (row.getReportMonth() != null) {
+                employeeBits.put(YearMonth.from(row.getReportMonth()), row.getDayBits());
+            }
+        }
+
+        List<ReportMonthlyStatsSummary> summaries = new ArrayList<>(names.size());
+        names.forEach((employeeCode, employeeName) -> {
+            Map<YearMonth, Integer> employeeBits = bits.get(employeeCode);
+            List<Integer> counts = new ArrayList<>(months.size());
+            for (YearMonth month : months) {
+                counts.add(Integer.bitCount(employeeBits.getOrDefault(month, 0)));
+            }
+            int[] streaks = streaks(employeeBits, from.atDay(1), to.atEndOfMonth(), today);
+            summaries.add(new ReportMonthlyStatsSummary(employeeCode, employeeName, counts, streaks[0], streaks[1]));
+        });
+        return summaries;
+    }
+
+    // 指定した期間の平日のうち、日報を提出していない日を、指定した社員番号より後の従業員についてlimit人分求める
+    // (社員番号の順。未提出の日がない従業員は含めない。当日より後と従業員の登録前は対象外)
+    // (従業員をlimit人ずつ月別の提出ビットと1回のSQLで取得し、平日のビットとの差で判定する。
+    //  未提出の日がない従業員を除いてlimit人に満たない場合のみ、続きの従業員を取得する)
+    @Transactional(readOnly = true)
+    public List<MissingReports> findMissingReports(LocalDate from, LocalDate to, LocalDate today, String afterCode,
+            int limit) {
+        LocalDate end = to.isBefore(today) ? to : today;
+        List<MissingReports> result = new ArrayList<>();
+        if (end.isBefore(from)) {
+            return result;
+        }
+
+        String cursor = afterCode == null ? "" : afterCode;
+        while (result.size() < limit) {
+            List<ReportMonthlyStatsRepository.EmployeeMonthlyStatsRow> rows = statsRepository
+                    .findEmployeeRows(monthOf(from), monthOf(end), cursor, limit);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            String employeeCode = null;
+            String employeeName = null;
+            LocalDate employeeFrom = null;
+            Map<YearMonth, Integer> employeeBits = new HashMap<>();
+            int employees = 0;
+            for (ReportMonthlyStatsRepository.EmployeeMonthlyStatsRow row : rows) {
+                // 社員番号の順に取得しているため、社員番号が変わったら前の従業員を判定する
+                if (!row.getEmployeeCode().equals(employeeCode)) {
+                    addMissingReports(result, employeeCode, employeeName, employeeBits, employeeFrom, end);
+                    employeeCode = row.getEmployeeCode();
+                    employeeName = row.getEmployeeName();
+                    LocalDate createdDate = row.getEmployeeCreatedAt().toLocalDate();
+                    employeeFrom = createdDate.isAfter(from) ? createdDate : from;
+                    employeeBits = new HashMap<>();
+                    employees++;
+                }
+                if (row.getReportMonth() != null) {
+                    employeeBits.put(YearMonth.from(row.getReportMonth()), row.getDayBits());
+                }
+            }
+            addMissingReports(result, employeeCode, employeeName, employeeBits, employeeFrom, end);
+
+            // limit人に満たなければ、続きの従業員はいない
+            if (employees < limit) {
+                break;
+            }
+            cursor = employeeCode;
+        }
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private static void addMissingReports(List<MissingReports> result, String employeeCode, String employeeName,
+            Map<YearMonth, Integer> bits, LocalDate from, LocalDate to) {
+        if (employeeCode == null) {
+            return;
+        }
+        List<LocalDate> dates = missingDates(bits, from, to);
+        if (!dates.isEmpty()) {
+            result.add(new MissingReports(employeeCode, employeeName, dates));
+        }
+    }
+
+    // 期間内の平日のうち、提出ビットが立っていない日
+    static List<LocalDate> missingDates(Map<YearMonth, Integer> bits, LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (isWeekday(date) && (bits.getOrDefault(YearMonth.from(date), 0) & dayBit(date)) == 0) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    // 期間内の平日を順にたどり、現在の連続提出日数と最長の連続提出日数を求める
+    // (当日が未提出の場合は、まだ提出前として連続を途切れさせない)
+    static int[] streaks(Map<YearMonth, Integer> bits, LocalDate from, LocalDate to, LocalDate today) {
+        int current = 0;
+        int longest = 0;
+        LocalDate end = to.isBefore(today) ? to : today;
+        for (LocalDate date = from; !date.isAfter(end); date = date.plusDays(1)) {
+            if (!isWeekday(date)) {
+                continue;
+            }
+            boolean submitted = (bits.getOrDefault(YearMonth.from(date), 0) & dayBit(date)) != 0;
+            if (submitted) {
+                current++;
+                longest = Math.max(longest, current);
+            } else if (!date.equals(today)) {
+                current = 0;
+            }
+        }
+        return new int[] { current, longest };
+    }
+
+    // 平日（月～金）かどうか（祝日は考慮しない）
+    private static boolean isWeekday(LocalDate date) {
+        return date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+
+    // 日付の月（月初日）
+    private static LocalDate monthOf(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    // 日付の日のビット（1日がbit0）
+    private static int dayBit(LocalDate date) {
+        return 1 << (date.getDayOfMonth() - 1);
+    }
+}
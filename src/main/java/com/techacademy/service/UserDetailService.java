@@ -1,30 +1,54 @@
 package com.techacademy.service;
 
-import java.util.Optional;
-
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.InteractiveAuthenticationSuccessEvent;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.entity.Employee;
-import com.techacademy.repository.EmployeeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class UserDetailService implements UserDetailsService {
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
 
-    public UserDetailService(EmployeeRepository repository) {
-        this.employeeRepository = repository;
+    // ログインの成功・失敗の件数（/actuator/prometheusで確認できる）
+    private final Counter loginSuccessCounter;
+    private final Counter loginFailureCounter;
+
+    public UserDetailService(EmployeeService employeeService, MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        this.loginSuccessCounter = Counter.builder("login.attempts").tag("result", "success")
+                .description("ログイン試行回数").register(meterRegistry);
+        this.loginFailureCounter = Counter.builder("login.attempts").tag("result", "failure")
+                .description("ログイン試行回数").register(meterRegistry);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<Employee> employee = employeeRepository.findById(username);
+        // ログイン時に取得した従業員はキャッシュに載るため、直後の日報操作では再検索しない
+        Employee employee = employeeService.findLoginEmployee(username);
 
-        if (employee.isEmpty()) {
+        if (employee == null) {
             throw new UsernameNotFoundException("Exception:Username Not Found");
         }
-        return new UserDetail(employee.get());
+        return new UserDetail(employee);
+    }
+
+    // ログイン画面からのログイン成功
+    // (ベーシック認証による/actuatorへの要求は毎回認証されるため数えない)
+    @EventListener
+    public void onLoginSuccess(InteractiveAuthenticationSuccessEvent event) {
+        loginSuccessCounter.increment();
+    }
+
+    // ログイン画面からのログイン失敗（従業員番号・パスワードの誤り等）
+    // (ログイン画面の失敗時の処理（SecurityConfig）から呼び出す。ベーシック認証の失敗は数えない)
+    public void onLoginFailure() {
+        loginFailureCounter.increment();
     }
-}
\ No newline at end of file
+}
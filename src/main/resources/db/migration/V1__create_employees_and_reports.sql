@@ -0,0 +1,49 @@
+-- 従業員
+CREATE TABLE employees (
+    code       VARCHAR(10)  NOT NULL,
+    name       VARCHAR(20)  NOT NULL,
+    role       VARCHAR(10)  NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    delete_flg TINYINT      NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (code),
+    -- 一覧の条件付きGET（削除されていない従業員の最終更新日時）
+    INDEX idx_employees_delete_flg_updated_at (delete_flg, updated_at),
+    -- 一覧の氏名による並べ替え
+    INDEX idx_employees_delete_flg_name (delete_flg, name)
+);
+
+-- 日報
+CREATE TABLE reports (
+    id                 INT          NOT NULL,
+    name               VARCHAR(255),
+    report_date        DATE         NOT NULL,
+    title              VARCHAR(100) NOT NULL,
+    content            VARCHAR(600) NOT NULL,
+    employee_code      VARCHAR(10)  NOT NULL,
+    delete_flg         TINYINT      NOT NULL,
+    -- 一意制約用の日付（削除されていない場合のみ日付、削除済みはNULL）
+    active_report_date DATE GENERATED ALWAYS AS (IF(delete_flg = 0, report_date, NULL)) STORED,
+    created_at         DATETIME(6)  NOT NULL,
+    updated_at         DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    -- 1従業員1日1件（削除されていない日報のみ）
+    UNIQUE KEY uk_reports_employee_active_date (employee_code, active_report_date),
+    -- 全件の一覧・CSV出力（日付の新しい順のキーセットページング、月の範囲指定）
+    INDEX idx_reports_delete_flg_report_date_id (delete_flg, report_date, id),
+    -- 従業員ごとの一覧・CSV出力・日付による検索
+    INDEX idx_reports_employee_code_delete_flg_report_date_id (employee_code, delete_flg, report_date, id),
+    -- 一覧の条件付きGET（削除されていない日報の最終更新日時。全件・従業員ごと）
+    INDEX idx_reports_delete_flg_updated_at (delete_flg, updated_at),
+    INDEX idx_reports_employee_code_delete_flg_updated_at (employee_code, delete_flg, updated_at),
+    -- タイトル・内容のキーワード検索
+    FULLTEXT INDEX ft_reports_title_content (title, content) WITH PARSER ngram,
+    CONSTRAINT fk_reports_employee_code FOREIGN KEY (employee_code) REFERENCES employees (code)
+);
+
+-- 日報IDの採番（HibernateがMySQLでシーケンスの代わりに使うテーブル。50件ずつ払い出す）
+CREATE TABLE reports_seq (
+    next_val BIGINT
+);
+INSERT INTO reports_seq VALUES (100);
@@ -0,0 +1,3 @@
+-- 楽観的ロック用のバージョン（既存の行は0から開始する）
+ALTER TABLE employees ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE reports ADD COLUMN version INT NOT NULL DEFAULT 0;
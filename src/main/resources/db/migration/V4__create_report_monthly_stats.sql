@@ -0,0 +1,18 @@
+-- 従業員ごと・月ごとの日報の提出状況（ダッシュボード用の集計。日報の登録・更新・削除と同じトランザクションで更新する）
+-- day_bitsは日報を提出した日のビット（1日がbit0、31日がbit30）
+CREATE TABLE report_monthly_stats (
+    employee_code VARCHAR(10) NOT NULL,
+    report_month  DATE        NOT NULL,
+    day_bits      INT         NOT NULL,
+    PRIMARY KEY (employee_code, report_month),
+    -- ダッシュボードの月の範囲指定
+    INDEX idx_report_monthly_stats_report_month (report_month),
+    CONSTRAINT fk_report_monthly_stats_employee_code FOREIGN KEY (employee_code) REFERENCES employees (code)
+);
+
+-- 既存の日報から集計する
+INSERT INTO report_monthly_stats (employee_code, report_month, day_bits)
+SELECT employee_code, DATE_FORMAT(report_date, '%Y-%m-01'), BIT_OR(1 << (DAY(report_date) - 1))
+FROM reports
+WHERE delete_flg = 0
+GROUP BY employee_code, DATE_FORMAT(report_date, '%Y-%m-01');
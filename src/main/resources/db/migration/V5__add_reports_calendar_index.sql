@@ -0,0 +1,3 @@
+-- 従業員ごとの月のカレンダー（削除されていない日報の日付・ID・タイトルを索引だけで取得する）
+-- (active_report_dateは削除済みではNULLとなるため、削除フラグを読まずに範囲で絞り込める。IDは主キーとして索引に含まれる)
+CREATE INDEX idx_reports_employee_code_active_report_date_title ON reports (employee_code, active_report_date, title);
@@ -0,0 +1,175 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// プライマリ・レプリカを2つの組込みDBで代用し、接続先を確認する
+// (JDBCのトランザクションに加え、アプリと同じJPA（JpaTransactionManager・Hibernate）のトランザクションでも確認する)
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate jpaReadWrite;
+    private TransactionTemplate jpaReadOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+        DataSource dataSource = ReadWriteRoutingDataSource.create(primary, replica);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Spring Bootと同じHibernateJpaVendorAdapterを使う（接続の取得をSQLの実行時まで遅らせる設定になる）
+        // (エンティティは使わず、ネイティブクエリで接続先を確認する)
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan();
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+        JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(entityManagerFactory);
+        jpaReadWrite = new TransactionTemplate(jpaTransactionManager);
+        jpaReadOnly = new TransactionTemplate(jpaTransactionManager);
+        jpaReadOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+        entityManagerFactory.close();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void testPinnedReadOnlyTransactionUsesPrimary() {
+        ReadWriteRoutingDataSource.pinPrimary();
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+
+        ReadWriteRoutingDataSource.unpin();
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void testJpaReadOnlyTransactionUsesReplica() {
+        assertEquals("replica", jpaReadOnly.execute(status -> currentDatabaseByJpa()));
+    }
+
+    @Test
+    void testJpaReadWriteTransactionUsesPrimary() {
+        assertEquals("primary", jpaReadWrite.execute(status -> currentDatabaseByJpa()));
+    }
+
+    @Test
+    void testJpaPinnedReadOnlyTransactionUsesPrimary() {
+        ReadWriteRoutingDataSource.pinPrimary();
+        assertEquals("primary", jpaReadOnly.execute(status -> currentDatabaseByJpa()));
+
+        ReadWriteRoutingDataSource.unpin();
+        assertEquals("replica", jpaReadOnly.execute(status -> currentDatabaseByJpa()));
+    }
+
+    // 更新の要求と、その後の期間内の同じセッションからの要求はプライマリから読み、他のセッションはレプリカから読むこと
+    @Test
+    void testReadYourWritesFilterPinsSessionAfterWrite() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DatabaseController())
+                .addFilters(new ReadYourWritesFilter(Duration.ofMinutes(1))).build();
+        MockHttpSession writer = new MockHttpSession();
+
+        mockMvc.perform(get("/database").session(writer)).andExpect(content().string("replica"));
+        mockMvc.perform(post("/database").session(writer)).andExpect(content().string("primary"));
+        mockMvc.perform(get("/database").session(writer)).andExpect(content().string("primary"));
+        mockMvc.perform(get("/database").session(new MockHttpSession())).andExpect(content().string("replica"));
+        mockMvc.perform(get("/database")).andExpect(content().string("replica"));
+    }
+
+    // 更新から期間が過ぎた後は、同じセッションでもレプリカから読むこと
+    @Test
+    void testReadYourWritesFilterUnpinsAfterWindow() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DatabaseController())
+                .addFilters(new ReadYourWritesFilter(Duration.ZERO)).build();
+        MockHttpSession writer = new MockHttpSession();
+
+        mockMvc.perform(post("/database").session(writer)).andExpect(content().string("primary"));
+        mockMvc.perform(get("/database").session(writer)).andExpect(content().string("replica"));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private String currentDatabaseByJpa() {
+        return (String) EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                .createNativeQuery("SELECT name FROM marker").getSingleResult();
+    }
+
+    // 画面の代わりに、読み取り専用トランザクション（GET）と更新トランザクション（POST）の接続先を返す
+    @RestController
+    class DatabaseController {
+
+        @GetMapping("/database")
+        String read() {
+            return jpaReadOnly.execute(status -> currentDatabaseByJpa());
+        }
+
+        @PostMapping("/database")
+        String write() {
+            return jpaReadWrite.execute(status -> currentDatabaseByJpa());
+        }
+    }
+
+    private static EmbeddedDatabase createDatabase(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName(name)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(10))");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,36 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+// 既定（app.server-timing.enabled未指定）では計測用のフィルタ・設定を登録せず、Server-Timingヘッダを出力しないこと
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServerTimingConfigurationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testDisabledByDefault() throws Exception {
+        assertTrue(context.getBeansOfType(ServerTimingConfiguration.class).isEmpty());
+
+        mockMvc.perform(get("/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.techacademy;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+// app.server-timing.enabled=trueの場合、処理時間の内訳をServer-Timingヘッダに出力すること
+// (@AutoConfigureMockMvcのMockMvcはFilterRegistrationBeanで登録したフィルタも通す)
+@SpringBootTest(properties = "app.server-timing.enabled=true")
+@AutoConfigureMockMvc
+class ServerTimingFilterTest {
+
+    // 例: sec;dur=85.2;desc="filters+security", svc;dur=4.1;desc="services", ..., total;dur=97.0
+    private static final String HEADER_PATTERN = "sec;dur=\\d+\\.\\d;desc=\"filters\\+security\""
+            + ", svc;dur=\\d+\\.\\d;desc=\"services\""
+            + ", db;dur=\\d+\\.\\d;desc=\"repositories\""
+            + ", view;dur=\\d+\\.\\d;desc=\"rendering\""
+            + ", total;dur=\\d+\\.\\d";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // 従業員一覧画面（サービス・リポジトリの呼び出しと画面の描画を含む）
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testServerTimingHeader() throws Exception {
+        mockMvc.perform(get("/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern(HEADER_PATTERN)));
+    }
+
+    // コントローラに到達しない要求（ログイン画面へのリダイレクト）にも出力すること
+    @Test
+    void testServerTimingHeaderOnRedirect() throws Exception {
+        mockMvc.perform(get("/employees"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().string("Server-Timing", matchesPattern(HEADER_PATTERN)));
+    }
+}
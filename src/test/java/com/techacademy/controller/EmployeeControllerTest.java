@@ -1,6 +1,7 @@
 package com.techacademy.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -19,6 +20,7 @@ import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -28,6 +30,8 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.techacademy.SqlStatementBudgetFilter;
+import com.techacademy.dto.EmployeeListRow;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
 import com.techacademy.service.UserDetail;
@@ -41,14 +45,18 @@ class EmployeeControllerTest {
 
     private final WebApplicationContext webApplicationContext;
 
+    @Autowired
+    private SqlStatementBudgetFilter sqlStatementBudgetFilter;
+
     EmployeeControllerTest(WebApplicationContext context) {
         this.webApplicationContext = context;
     }
 
     @BeforeEach
     void beforeEach() {
-        // Spring Securityを有効にする
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        // Spring Securityを有効にし、要求ごとに発行されたSQLの件数を数える
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity())
+                .addFilters(sqlStatementBudgetFilter).build();
     }
 
     // 従業員一覧画面
@@ -65,24 +73,53 @@ class EmployeeControllerTest {
                 .andReturn(); // 内容の取得
 
         @SuppressWarnings("unchecked")
-        List<Employee> employeeList = (List<Employee>) result.getModelAndView().getModel().get("employeeList");
+        List<EmployeeListRow> employeeList = (List<EmployeeListRow>) result.getModelAndView().getModel().get("employeeList");
 
-        // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが2の受講生のオブジェクトのみ取得する
-        Employee employeeCode1 = employeeList.stream().filter(e -> "1".equals(e.getCode())).findFirst().get();
+        // 一覧は表示項目のみのプロジェクションのため、パスワードは含まれない
+        // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが1の受講生のオブジェクトのみ取得する
+        EmployeeListRow employeeCode1 = employeeList.stream().filter(e -> "1".equals(e.getCode())).findFirst().get();
         assertEquals(employeeCode1.getCode(), "1");
         assertEquals(employeeCode1.getName(), "煌木　太郎");
         assertEquals(employeeCode1.getRole(), Role.ADMIN);
-        assertEquals(employeeCode1.getPassword(), "$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO");
 
         // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが2の受講生のオブジェクトのみ取得する
-        Employee employeeCode2 = employeeList.stream().filter(e -> "2".equals(e.getCode())).findFirst().get();
+        EmployeeListRow employeeCode2 = employeeList.stream().filter(e -> "2".equals(e.getCode())).findFirst().get();
         assertEquals(employeeCode2.getCode(), "2");
         assertEquals(employeeCode2.getName(), "田中　太郎");
         assertEquals(employeeCode2.getRole(), Role.GENERAL);
-        assertEquals(employeeCode2.getPassword(), "$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi");
 
     }
 
+    // テストケース2 絞り込み・並べ替え
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testListFilter() throws Exception {
+        MvcResult result = mockMvc.perform(get("/employees").param("role", "GENERAL").param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("listSize", 1L))
+                .andExpect(view().name("employees/list"))
+                .andReturn();
+
+        @SuppressWarnings("unchecked")
+        List<EmployeeListRow> employeeList = (List<EmployeeListRow>) result.getModelAndView().getModel().get("employeeList");
+        assertEquals(1, employeeList.size());
+        assertEquals("2", employeeList.get(0).getCode());
+    }
+
+    // テストケース3 発行するSQLの件数
+    // 更新日時・件数の確認と1ページ分の取得のみで、従業員・日報の件数に比例しないこと
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testListStatementBudget() throws Exception {
+        MvcResult result = mockMvc.perform(get("/employees"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("employees/list"))
+                .andReturn();
+
+        int count = (int) result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE);
+        assertTrue(count <= 4, "GET /employees issued " + count + " statements");
+    }
+
     // 従業員詳細画面
     @Test
     @WithMockUser(authorities = "ADMIN")
@@ -0,0 +1,273 @@
+package com.techacademy.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.techacademy.SqlStatementBudgetFilter;
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Reports;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportsRepository;
+import com.techacademy.service.ReportsService;
+import com.techacademy.service.UserDetail;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class ReportsControllerTest {
+
+    private MockMvc mockMvc;
+
+    private final WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReportsRepository reportsRepository;
+
+    @Autowired
+    private ReportsService reportsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SqlStatementBudgetFilter sqlStatementBudgetFilter;
+
+    private Statistics statistics;
+
+    ReportsControllerTest(WebApplicationContext context) {
+        this.webApplicationContext = context;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にし、要求ごとに発行されたSQLの件数を数える
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity())
+                .addFilters(sqlStatementBudgetFilter).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // 日報新規登録処理
+    // ログイン中の従業員はキャッシュから取得し、登録時に従業員の検索を行わないこと
+    // (テスト側のトランザクションで従業員を取得済みにしないよう、@Transactionalは付けない)
+    @Test
+    void testAddWithoutEmployeeLookup() throws Exception {
+        cacheManager.getCache("loginEmployee").evict("2");
+        UserDetail userDetail = new UserDetail(employeeRepository.findById("2").get());
+        try {
+            // ログイン直後と同様に、ログイン中の従業員をキャッシュに載せる
+            mockMvc.perform(get("/reports/add").with(user(userDetail)))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name("reports/new"));
+
+            statistics.clear();
+            mockMvc.perform(post("/reports/add").param("reportDate", "2000-02-02").param("title", "タイトル")
+                    .param("content", "内容").with(user(userDetail)).with(csrf()))
+                    .andExpect(redirectedUrl("/reports"));
+
+            // 発行されるSQLは日報のINSERT、提出状況の集計の更新と、採番テーブルの更新（50件に1回）のみ
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(1, statistics.getEntityInsertCount());
+            assertTrue(statistics.getPrepareStatementCount() <= 4);
+        } finally {
+            deleteAddedReports();
+        }
+    }
+
+    // 日報新規登録処理
+    // キャッシュにログイン中の従業員がなければ、登録時に従業員を検索すること（上のテストの対照）
+    @Test
+    void testAddLooksUpEmployeeWithoutCache() throws Exception {
+        cacheManager.getCache("loginEmployee").evict("2");
+        UserDetail userDetail = new UserDetail(employeeRepository.findById("2").get());
+        try {
+            statistics.clear();
+            mockMvc.perform(post("/reports/add").param("reportDate", "2000-02-03").param("title", "タイトル")
+                    .param("content", "内容").with(user(userDetail)).with(csrf()))
+                    .andExpect(redirectedUrl("/reports"));
+
+            assertEquals(1, statistics.getEntityLoadCount());
+            assertEquals(1, statistics.getEntityInsertCount());
+        } finally {
+            deleteAddedReports();
+        }
+    }
+
+    // 登録処理のテストで登録した日報と提出状況の集計を物理削除する
+    private void deleteAddedReports() {
+        jdbcTemplate.update("DELETE FROM reports WHERE employee_code = ? AND report_date BETWEEN ? AND ?", "2",
+                LocalDate.of(2000, 2, 2), LocalDate.of(2000, 2, 3));
+        jdbcTemplate.update("DELETE FROM report_monthly_stats WHERE employee_code = ? AND report_month = ?", "2",
+                LocalDate.of(2000, 2, 1));
+    }
+
+    // 日報一覧画面
+    // 発行するSQLは更新日時の確認（日報・従業員）と1ページ分の取得のみで、日報の件数に比例しないこと
+    @Test
+    void testListStatementBudget() throws Exception {
+        UserDetail userDetail = new UserDetail(employeeRepository.findById("1").get());
+
+        // 件数はキャッシュに載るため、2回目以降は数えない
+        mockMvc.perform(get("/reports").with(user(userDetail))).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/reports").with(user(userDetail)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("reports/list"))
+                .andReturn();
+
+        int count = (int) result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE);
+        assertTrue(count <= 3, "GET /reports issued " + count + " statements");
+    }
+
+    // 日報詳細画面
+    // 前回の表示から変更がなければ、画面を描画せずに304を返すこと
+    @Test
+    void testDetailNotModified() throws Exception {
+        UserDetail userDetail = new UserDetail(employeeRepository.findById("1").get());
+        MockHttpSession session = new MockHttpSession();
+
+        MvcResult result = mockMvc.perform(get("/reports/1").session(session).with(user(userDetail)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(view().name("reports/detail"))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/reports/1").session(session).header(HttpHeaders.IF_NONE_MATCH, etag)
+                .with(user(userDetail)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    // 日報一覧画面
+    // 日報を削除した直後（件数のキャッシュが残っていても）は、前回のETagでも304を返さないこと
+    @Test
+    void testListModifiedAfterDelete() throws Exception {
+        UserDetail userDetail = new UserDetail(employeeRepository.findById("1").get());
+        MockHttpSession session = new MockHttpSession();
+        Reports report = Reports.builder().reportDate(LocalDate.of(2000, 3, 1)).title("タイトル").content("内容")
+                .employee(employeeRepository.findById("2").get()).build();
+        reportsService.save(report);
+        try {
+            MvcResult result = mockMvc.perform(get("/reports").session(session).with(user(userDetail)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+            reportsService.delete(report.getId(), userDetail);
+
+            mockMvc.perform(get("/reports").session(session).header(HttpHeaders.IF_NONE_MATCH, etag)
+                    .with(user(userDetail)))
+                    .andExpect(status().isOk())
+                    .andExpect(view().name("reports/list"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM reports WHERE id = ?", report.getId());
+            jdbcTemplate.update("DELETE FROM report_monthly_stats WHERE employee_code = ? AND report_month = ?", "2",
+                    LocalDate.of(2000, 3, 1));
+        }
+    }
+
+    // 日報カレンダー画面
+    // その月の日報が詳細画面へのリンクとして表示され、変更がなければ304を返すこと
+    @Test
+    void testCalendarNotModified() throws Exception {
+        UserDetail userDetail = new UserDetail(employeeRepository.findById("1").get());
+        String month = reportsRepository.findById(1).get().getReportDate().toString().substring(0, 7);
+        MockHttpSession session = new MockHttpSession();
+
+        MvcResult result = mockMvc.perform(get("/reports/calendar").param("month", month).session(session)
+                .with(user(userDetail)))
+                .andExpect(status().isOk())
+                .andExpect(view().name("reports/calendar"))
+                .andExpect(content().string(containsString("href=\"/reports/1\"")))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/reports/calendar").param("month", month).session(session)
+                .header(HttpHeaders.IF_NONE_MATCH, etag).with(user(userDetail)))
+                .andExpect(status().isNotModified());
+    }
+
+    // 日報CSV出力
+    // 管理者は全員分、一般ユーザーは自分の日報のみ出力し、数式として解釈される値は先頭に「'」を付けること
+    @Test
+    void testExportCsv() throws Exception {
+        UserDetail admin = new UserDetail(employeeRepository.findById("1").get());
+        UserDetail general = new UserDetail(employeeRepository.findById("2").get());
+        Reports adminReport = Reports.builder().reportDate(LocalDate.of(2000, 4, 3)).title("=1+1").content("-内容")
+                .employee(admin.getEmployee()).build();
+        Reports generalReport = Reports.builder().reportDate(LocalDate.of(2000, 4, 3)).title("@タイトル")
+                .content("=SUM(A1,A2)").employee(general.getEmployee()).build();
+        assertEquals(ErrorKinds.SUCCESS, reportsService.save(adminReport));
+        assertEquals(ErrorKinds.SUCCESS, reportsService.save(generalReport));
+
+        try {
+            String adminCsv = exportCsv(admin, "2000-04");
+            assertTrue(adminCsv.contains(",'=1+1,'-内容,"));
+            assertTrue(adminCsv.contains(",'@タイトル,\"'=SUM(A1,A2)\","));
+
+            String generalCsv = exportCsv(general, "2000-04");
+            assertTrue(generalCsv.contains(",'@タイトル,\"'=SUM(A1,A2)\","));
+            assertFalse(generalCsv.contains("'=1+1"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM reports WHERE id IN (?, ?)", adminReport.getId(), generalReport.getId());
+            jdbcTemplate.update("DELETE FROM report_monthly_stats WHERE employee_code IN (?, ?) AND report_month = ?",
+                    "1", "2", LocalDate.of(2000, 4, 1));
+        }
+    }
+
+    // CSV出力の本文を取得する（StreamingResponseBodyのため非同期処理の完了後に取得する）
+    private String exportCsv(UserDetail userDetail, String month) throws Exception {
+        MvcResult result = mockMvc.perform(get("/reports/export.csv").param("month", month).with(user(userDetail)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -1,20 +1,31 @@
 package com.techacademy.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.logout;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 class TopControllerTest {
@@ -23,6 +34,9 @@ class TopControllerTest {
 
     private final WebApplicationContext webApplicationContext;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     TopControllerTest(WebApplicationContext context) {
         this.webApplicationContext = context;
     }
@@ -51,4 +65,37 @@ class TopControllerTest {
         this.mockMvc.perform(logout());
     }
 
+    // ログイン失敗の件数
+    // ログイン画面からの失敗のみを数え、/actuatorへのベーシック認証の失敗は数えないこと
+    @Test
+    void testLoginFailureCount() throws Exception {
+        Counter failures = meterRegistry.get("login.attempts").tag("result", "failure").counter();
+        double before = failures.count();
+
+        mockMvc.perform(formLogin("/login").user("1").password("wrong-password"))
+                .andExpect(redirectedUrl("/login?error"));
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("1", "wrong-password")))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(before + 1, failures.count());
+    }
+
+    // 画面はベーシック認証を受け付けず、ログイン画面へリダイレクトすること
+    @Test
+    void testPagesRejectBasicAuth() throws Exception {
+        mockMvc.perform(get("/reports").with(httpBasic("1", "password")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/login"));
+    }
+
+    // /actuatorはログイン画面へリダイレクトせず、ベーシック認証を求めること
+    @Test
+    void testActuatorRequiresBasicAuth() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE));
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
 }
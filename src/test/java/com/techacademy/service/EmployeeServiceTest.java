@@ -2,8 +2,12 @@ package com.techacademy.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,16 +15,33 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
+import com.techacademy.entity.Reports;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportsRepository;
 
-@SpringBootTest
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ExtendWith(SpringExtension.class)
 class EmployeeServiceTest {
 
     @Autowired
     private EmployeeService service;
 
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReportsRepository reportsRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Test
     @WithMockUser
     void testFindAll() {
@@ -62,4 +83,49 @@ class EmployeeServiceTest {
 
     }
 
+    // 従業員削除時の日報の論理削除は、日報の件数によらず発行SQL数が一定であること
+    @Test
+    @WithMockUser
+    @Transactional
+    void testDeleteStatementCountIsConstant() {
+
+        Employee fewReports = createEmployee("3", 1);
+        Employee manyReports = createEmployee("4", 50);
+        entityManager.flush();
+        entityManager.clear();
+
+        long fewCount = countDeleteStatements(fewReports.getCode());
+        long manyCount = countDeleteStatements(manyReports.getCode());
+        assertEquals(fewCount, manyCount);
+
+        // 日報が論理削除されていること（@SQLRestrictionにより取得されない）
+        assertEquals(0, reportsRepository.countByEmployeeAndDeleteFlgFalse(manyReports));
+    }
+
+    // 日報をreportCount件持つ従業員を登録する
+    private Employee createEmployee(String code, int reportCount) {
+        LocalDateTime now = LocalDateTime.now();
+        Employee employee = employeeRepository.save(Employee.builder().code(code).name("テスト" + code).role(Role.GENERAL)
+                .password("12345678").deleteFlg(false).createdAt(now).updatedAt(now).build());
+        for (int i = 0; i < reportCount; i++) {
+            reportsRepository.save(Reports.builder().reportDate(LocalDate.of(2020, 1, 1).plusDays(i)).title("タイトル" + i)
+                    .content("内容" + i).employee(employee).deleteFlg(false).createdAt(now).updatedAt(now).build());
+        }
+        return employee;
+    }
+
+    // 従業員削除で発行されたSQLの数
+    private long countDeleteStatements(String code) {
+        Employee admin = new Employee();
+        admin.setCode("1");
+        admin.setRole(Role.ADMIN);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(ErrorKinds.SUCCESS, service.delete(code, new UserDetail(admin)));
+        entityManager.flush();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+
 }
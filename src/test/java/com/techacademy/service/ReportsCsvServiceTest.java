@@ -0,0 +1,98 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.dto.ReportsImportResult;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Reports;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportsRepository;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportsCsvServiceTest {
+
+    // 既存データと重ならない期間（テストで登録する日報はこの期間内とする）
+    private static final LocalDate FROM_DATE = LocalDate.of(2001, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2003, 12, 31);
+
+    @Autowired
+    private ReportsCsvService service;
+
+    @Autowired
+    private ReportsService reportsService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @MockitoSpyBean
+    private ReportsRepository reportsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM reports WHERE employee_code = ? AND report_date BETWEEN ? AND ?", "2",
+                FROM_DATE, TO_DATE);
+        jdbcTemplate.update("DELETE FROM report_monthly_stats WHERE employee_code = ? AND report_month BETWEEN ? AND ?",
+                "2", FROM_DATE, TO_DATE);
+    }
+
+    // 取込み中に同じ日付の日報が登録された場合（事前の重複チェック後の一意制約違反）、
+    // その範囲の行は登録に失敗した行として報告され、続く範囲の取込みは続行されること
+    @Test
+    void testImportCollidingWithActiveReport() throws Exception {
+        Employee employee = employeeRepository.findById("2").get();
+        Reports existing = Reports.builder().reportDate(FROM_DATE).title("タイトル").content("内容").employee(employee)
+                .build();
+        assertEquals(ErrorKinds.SUCCESS, reportsService.save(existing));
+
+        // 事前の重複チェックでは見つからなかった（チェックの後に画面から登録された）ことにする
+        doReturn(List.of()).when(reportsRepository).findActiveDateKeys(any(), any(), any());
+
+        // 1つ目の範囲（500行）の先頭が登録済みの日報と重なり、2つ目の範囲（1行）は重ならない
+        StringBuilder csv = new StringBuilder("社員番号,日付,タイトル,内容\n");
+        for (int i = 0; i <= 500; i++) {
+            csv.append("2,").append(FROM_DATE.plusDays(i)).append(",タイトル,内容\n");
+        }
+        ReportsImportResult result = service
+                .importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(501, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(500, result.getErrorCount());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("登録に失敗しました", result.getErrors().get(0).getMessage());
+    }
+
+    // 出力時に数式対策で付けた先頭の「'」は取込み時に取り除くこと（出力したCSVをそのまま取り込める）
+    @Test
+    void testImportRemovesFormulaPrefix() throws Exception {
+        String csv = "社員番号,日付,タイトル,内容\n2," + FROM_DATE + ",'=1+1,\"'-内容\"\n";
+        ReportsImportResult result = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getImportedRows());
+        assertEquals("=1+1", jdbcTemplate.queryForObject(
+                "SELECT title FROM reports WHERE employee_code = ? AND report_date = ?", String.class, "2", FROM_DATE));
+        assertEquals("-内容", jdbcTemplate.queryForObject(
+                "SELECT content FROM reports WHERE employee_code = ? AND report_date = ?", String.class, "2", FROM_DATE));
+    }
+}
@@ -0,0 +1,160 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.ReportMonthlyStats;
+import com.techacademy.entity.Reports;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportMonthlyStatsRepository;
+import com.techacademy.repository.ReportsRepository;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportsServiceTest {
+
+    // 既存データと重ならない日付（テストで登録する日報はこの日かその翌日とする）
+    private static final LocalDate REPORT_DATE = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private ReportsService service;
+
+    @Autowired
+    private ReportsRepository reportsRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReportMonthlyStatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        // 各テスト・各スレッドがコミットした日報を、論理削除済みも含めて物理削除する
+        // (エンティティ経由では@SQLRestrictionにより論理削除済みの日報が取得できないため、SQLで削除する)
+        jdbcTemplate.update("DELETE FROM reports WHERE employee_code = ? AND report_date IN (?, ?)", "2", REPORT_DATE,
+                REPORT_DATE.plusDays(1));
+        statsRepository.deleteById(new ReportMonthlyStats.Key("2", REPORT_DATE));
+    }
+
+    // 同じ従業員・日付の日報を同時に登録した場合、1件だけが登録されること
+    @Test
+    void testSaveConcurrentDuplicate() throws Exception {
+        int threads = 8;
+        Employee employee = employeeRepository.findById("2").get();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<ErrorKinds>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int no = i;
+            results.add(executor.submit(() -> {
+                Reports report = Reports.builder().reportDate(REPORT_DATE).title("タイトル" + no).content("内容" + no)
+                        .employee(employee).build();
+                start.await();
+                try {
+                    return service.save(report);
+                } catch (DataIntegrityViolationException e) {
+                    // 一意制約違反は日付重複エラーとして判定できること
+                    return service.isDuplicateReportDate(e) ? ErrorKinds.DATECHECK_ERROR : null;
+                }
+            }));
+        }
+        start.countDown();
+
+        int success = 0;
+        int duplicate = 0;
+        for (Future<ErrorKinds> result : results) {
+            ErrorKinds kind = result.get(30, TimeUnit.SECONDS);
+            if (kind == ErrorKinds.SUCCESS) {
+                success++;
+            } else if (kind == ErrorKinds.DATECHECK_ERROR) {
+                duplicate++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, success);
+        assertEquals(threads - 1, duplicate);
+        assertEquals(1, reportsRepository.findByEmployeeAndReportDate(employee, REPORT_DATE).size());
+    }
+
+    // 論理削除済みの日報と同じ日付では登録できること
+    @Test
+    void testSaveAfterDelete() {
+        Employee employee = employeeRepository.findById("2").get();
+        Reports first = Reports.builder().reportDate(REPORT_DATE).title("タイトル").content("内容").employee(employee)
+                .build();
+        assertEquals(ErrorKinds.SUCCESS, service.save(first));
+        service.delete(first.getId(), null);
+
+        Reports second = Reports.builder().reportDate(REPORT_DATE).title("タイトル").content("内容").employee(employee)
+                .build();
+        assertEquals(ErrorKinds.SUCCESS, service.save(second));
+    }
+
+    // 更新画面の表示後に他の利用者が更新した場合、古いバージョンでは更新できないこと
+    @Test
+    void testUpdateStaleVersion() {
+        Employee employee = employeeRepository.findById("2").get();
+        Reports report = Reports.builder().reportDate(REPORT_DATE).title("タイトル").content("内容").employee(employee)
+                .build();
+        assertEquals(ErrorKinds.SUCCESS, service.save(report));
+        Integer version = report.getVersion();
+
+        Reports first = Reports.builder().id(report.getId()).version(version).reportDate(REPORT_DATE).title("更新1")
+                .content("内容").employee(employee).build();
+        assertEquals(ErrorKinds.SUCCESS, service.update(first));
+
+        Reports second = Reports.builder().id(report.getId()).version(version).reportDate(REPORT_DATE).title("更新2")
+                .content("内容").employee(employee).build();
+        assertEquals(ErrorKinds.OPTIMISTIC_LOCK_ERROR, service.update(second));
+
+        Reports saved = service.findById(report.getId());
+        assertEquals("更新1", saved.getTitle());
+        assertEquals(version + 1, saved.getVersion().intValue());
+    }
+
+    // 日報の登録・更新・削除に合わせて、提出状況の集計が更新されること
+    @Test
+    void testStatsFollowSaveUpdateDelete() {
+        Employee employee = employeeRepository.findById("2").get();
+        ReportMonthlyStats.Key key = new ReportMonthlyStats.Key("2", REPORT_DATE);
+        Reports report = Reports.builder().reportDate(REPORT_DATE).title("タイトル").content("内容").employee(employee)
+                .build();
+        assertEquals(ErrorKinds.SUCCESS, service.save(report));
+        assertEquals(0b01, statsRepository.findById(key).get().getDayBits());
+
+        // 1日から2日へ変更
+        Reports moved = Reports.builder().id(report.getId()).version(report.getVersion())
+                .reportDate(REPORT_DATE.plusDays(1)).title("タイトル").content("内容").employee(employee).build();
+        assertEquals(ErrorKinds.SUCCESS, service.update(moved));
+        assertEquals(0b10, statsRepository.findById(key).get().getDayBits());
+
+        service.delete(report.getId(), null);
+        assertEquals(0, statsRepository.findById(key).get().getDayBits());
+    }
+
+}
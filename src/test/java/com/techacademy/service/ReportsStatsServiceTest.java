@@ -0,0 +1,182 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.dto.MissingReports;
+import com.techacademy.dto.ReportMonthlyStatsSummary;
+import com.techacademy.repository.ReportMonthlyStatsRepository;
+
+// 提出ビットからの判定（静的メソッドはDBを使わない）と、集計テーブルの読み書き
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportsStatsServiceTest {
+
+    // 2024-01-01は月曜日
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private ReportsStatsService service;
+
+    @Autowired
+    private ReportMonthlyStatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // 平日のうち提出ビットが立っていない日のみが未提出となること（土日は対象外）
+    @Test
+    void testMissingDates() {
+        // 1日（月）・2日（火）・4日（木）に提出
+        Map<YearMonth, Integer> bits = Map.of(YearMonth.of(2024, 1), 0b1011);
+
+        List<LocalDate> dates = ReportsStatsService.missingDates(bits, MONDAY, MONDAY.plusDays(7));
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8)), dates);
+    }
+
+    // 月をまたいでも未提出の日を判定できること
+    @Test
+    void testMissingDatesAcrossMonths() {
+        // 2024-01-31（水）と2024-02-01（木）に提出
+        Map<YearMonth, Integer> bits = Map.of(YearMonth.of(2024, 1), 1 << 30, YearMonth.of(2024, 2), 0b1);
+
+        List<LocalDate> dates = ReportsStatsService.missingDates(bits, LocalDate.of(2024, 1, 30),
+                LocalDate.of(2024, 2, 2));
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 2)), dates);
+    }
+
+    // 連続提出日数は土日を挟んでも途切れず、当日が未提出でも途切れないこと
+    @Test
+    void testStreaks() {
+        // 1日（月）～5日（金）と8日（月）に提出、9日（火）が当日で未提出
+        Map<YearMonth, Integer> bits = Map.of(YearMonth.of(2024, 1), 0b1001_1111);
+
+        int[] streaks = ReportsStatsService.streaks(bits, MONDAY, YearMonth.of(2024, 1).atEndOfMonth(),
+                MONDAY.plusDays(8));
+
+        assertEquals(6, streaks[0]);
+        assertEquals(6, streaks[1]);
+    }
+
+    // 集計の作り直し
+    // 他の台が作り直し中（名前付きロックを取得済み）の間は何もせず-1を返し、解放後は作り直せること
+    @Test
+    void testRebuildSkippedWhileLocked() throws Exception {
+        try (Connection other = dataSource.getConnection()) {
+            JdbcTemplate lock = new JdbcTemplate(new SingleConnectionDataSource(other, true));
+            assertEquals(1, lock.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class,
+                    ReportsStatsService.REBUILD_LOCK));
+            try {
+                assertEquals(-1, service.rebuild());
+            } finally {
+                lock.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, ReportsStatsService.REBUILD_LOCK);
+            }
+        }
+
+        // 作り直した件数は、削除されていない日報の従業員・月の組み合わせの数
+        int expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM reports"
+                + " WHERE delete_flg = 0 GROUP BY employee_code, DATE_FORMAT(report_date, '%Y-%m-01')) t",
+                Integer.class);
+        assertEquals(expected, service.rebuild());
+    }
+
+    // ダッシュボードの表示内容
+    // 期間内に日報のない従業員も、件数0・連続提出0日として表示されること
+    @Test
+    void testSummariesIncludeEmployeesWithoutReports() {
+        int employees = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE delete_flg = 0",
+                Integer.class);
+
+        List<ReportMonthlyStatsSummary> summaries = service.findSummaries(YearMonth.of(1990, 1),
+                YearMonth.of(1990, 6), LocalDate.of(1990, 6, 30));
+
+        assertEquals(employees, summaries.size());
+        for (ReportMonthlyStatsSummary summary : summaries) {
+            assertEquals(List.of(0, 0, 0, 0, 0, 0), summary.getMonthlyCounts());
+            assertEquals(0, summary.getCurrentStreak());
+            assertEquals(0, summary.getLongestStreak());
+        }
+    }
+
+    // 未提出者の判定用の取得
+    // 指定した社員番号より後の従業員に、指定した月の範囲の集計のみが結合され、集計のない従業員は月がnullの1行となること
+    @Test
+    void testFindEmployeeRowsJoinsMonthsInRange() {
+        jdbcTemplate.update("INSERT INTO report_monthly_stats (employee_code, report_month, day_bits) VALUES"
+                + " ('2', '1995-01-01', 1), ('2', '1995-03-01', 2)");
+        try {
+            LocalDate from = LocalDate.of(1995, 2, 1);
+            LocalDate to = LocalDate.of(1995, 3, 1);
+
+            List<ReportMonthlyStatsRepository.EmployeeMonthlyStatsRow> rows = statsRepository.findEmployeeRows(from,
+                    to, "", 1000);
+            List<ReportMonthlyStatsRepository.EmployeeMonthlyStatsRow> employee1 = rows.stream()
+                    .filter(r -> r.getEmployeeCode().equals("1")).toList();
+            List<ReportMonthlyStatsRepository.EmployeeMonthlyStatsRow> employee2 = rows.stream()
+                    .filter(r -> r.getEmployeeCode().equals("2")).toList();
+            assertEquals(1, employee1.size());
+            assertNull(employee1.get(0).getReportMonth());
+            assertEquals(1, employee2.size());
+            assertEquals(LocalDate.of(1995, 3, 1), employee2.get(0).getReportMonth());
+            assertEquals(2, employee2.get(0).getDayBits());
+
+            // 社員番号のカーソルより後の従業員のみを、指定した人数分取得すること
+            List<ReportMonthlyStatsRepository.EmployeeMonthlyStatsRow> page = statsRepository.findEmployeeRows(from,
+                    to, "1", 1);
+            assertEquals(1, page.stream().map(r -> r.getEmployeeCode()).distinct().count());
+            assertTrue(page.get(0).getEmployeeCode().compareTo("1") > 0);
+        } finally {
+            jdbcTemplate.update("DELETE FROM report_monthly_stats WHERE employee_code = '2'"
+                    + " AND report_month BETWEEN '1995-01-01' AND '1995-03-01'");
+        }
+    }
+
+    // 未提出者の1ページ分
+    // 未提出の日がない従業員は飛ばし、続きの従業員から指定した人数分を求めること
+    @Test
+    void testFindMissingReportsSkipsCompleteEmployees() {
+        for (String code : List.of("9001", "9002", "9003")) {
+            jdbcTemplate.update("INSERT INTO employees (code, name, role, password, delete_flg, created_at, updated_at)"
+                    + " VALUES (?, ?, 'GENERAL', 'password', 0, '1990-01-01', '1990-01-01')", code, "テスト" + code);
+        }
+        // 9002は1995-02-01（水）～03（金）のすべてに提出済み
+        jdbcTemplate.update("INSERT INTO report_monthly_stats (employee_code, report_month, day_bits)"
+                + " VALUES ('9002', '1995-02-01', 7)");
+        try {
+            LocalDate from = LocalDate.of(1995, 2, 1);
+            LocalDate to = LocalDate.of(1995, 2, 3);
+
+            List<MissingReports> first = service.findMissingReports(from, to, LocalDate.now(), "9000", 1);
+            assertEquals(1, first.size());
+            assertEquals("9001", first.get(0).getEmployeeCode());
+            assertEquals(List.of(from, from.plusDays(1), to), first.get(0).getMissingDates());
+
+            List<MissingReports> next = service.findMissingReports(from, to, LocalDate.now(), "9001", 1);
+            assertEquals(1, next.size());
+            assertEquals("9003", next.get(0).getEmployeeCode());
+        } finally {
+            jdbcTemplate.update("DELETE FROM report_monthly_stats WHERE employee_code IN ('9001', '9002', '9003')");
+            jdbcTemplate.update("DELETE FROM employees WHERE code IN ('9001', '9002', '9003')");
+        }
+    }
+}